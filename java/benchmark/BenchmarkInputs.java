@@ -0,0 +1,108 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Input generators for the benchmarks. Every distribution is deterministic for a given
+ * seed so that runs before and after a change see the same data.
+ *
+ * - RANDOM: uniform over the whole int range.
+ * - SORTED / REVERSE_SORTED: the best and worst case of naive pivot choices.
+ * - FEW_UNIQUE: 16 distinct values, the duplicate-heavy case.
+ * - ORGAN_PIPE: ascending then descending, which defeats median-of-three pivots.
+ * - ZIPFIAN: a skewed distribution (s = 1) where a few values dominate, like real keys.
+ */
+public class BenchmarkInputs {
+
+    public enum Distribution {
+        RANDOM, SORTED, REVERSE_SORTED, FEW_UNIQUE, ORGAN_PIPE, ZIPFIAN
+    }
+
+    private static final int FEW_UNIQUE_VALUES = 16;
+    private static final int ZIPF_MAX_RANK = 1 << 20;
+
+    public static int[] generate(Distribution distribution, int n, long seed) {
+        Random random = new Random(seed);
+        int[] values = new int[n];
+        switch (distribution) {
+            case RANDOM:
+                for (int i = 0; i < n; i++) {
+                    values[i] = random.nextInt();
+                }
+                break;
+            case SORTED:
+                for (int i = 0; i < n; i++) {
+                    values[i] = i;
+                }
+                break;
+            case REVERSE_SORTED:
+                for (int i = 0; i < n; i++) {
+                    values[i] = n - i;
+                }
+                break;
+            case FEW_UNIQUE:
+                for (int i = 0; i < n; i++) {
+                    values[i] = random.nextInt(FEW_UNIQUE_VALUES);
+                }
+                break;
+            case ORGAN_PIPE:
+                for (int i = 0; i < n; i++) {
+                    values[i] = Math.min(i, n - 1 - i);
+                }
+                break;
+            case ZIPFIAN:
+                double[] cdf = zipfCdf(Math.min(n, ZIPF_MAX_RANK));
+                for (int i = 0; i < n; i++) {
+                    int rank = Arrays.binarySearch(cdf, random.nextDouble());
+                    values[i] = rank >= 0 ? rank : -rank - 1;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("unknown distribution " + distribution);
+        }
+        return values;
+    }
+
+    /**
+     * Sorted keys for the search benchmarks, drawn from the given distribution.
+     */
+    public static int[] sortedKeys(Distribution distribution, int n, long seed) {
+        int[] keys = generate(distribution, n, seed);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static double[] zipfCdf(int ranks) {
+        double[] cdf = new double[Math.max(ranks, 1)];
+        double sum = 0;
+        for (int k = 0; k < cdf.length; k++) {
+            sum += 1.0 / (k + 1);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < cdf.length; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+
+    /**
+     * Parses sizes such as "1K", "250K", "100M" or "1000".
+     */
+    public static int parseSize(String size) {
+        String s = size.trim().toUpperCase();
+        long multiplier = 1;
+        if (s.endsWith("K")) {
+            multiplier = 1_000;
+            s = s.substring(0, s.length() - 1);
+        } else if (s.endsWith("M")) {
+            multiplier = 1_000_000;
+            s = s.substring(0, s.length() - 1);
+        }
+        long value = Long.parseLong(s) * multiplier;
+        if (value < 1 || value > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("size out of range: " + size);
+        }
+        return (int) value;
+    }
+}
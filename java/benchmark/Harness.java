@@ -0,0 +1,130 @@
+package benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * A small measurement loop in the spirit of JMH, for trees without a build system.
+ *
+ * Every benchmark runs a number of warmup iterations, whose results are discarded,
+ * followed by measured iterations. An iteration repeats setup + operation until it has
+ * spent at least the iteration time in the operation; only the operation is timed. The
+ * checksum returned by every operation is folded into a volatile field so the JIT
+ * cannot eliminate the work.
+ *
+ * Reported per benchmark:
+ * - ms/op: mean time per operation over the measured iterations, and its minimum.
+ * - Melem/s: throughput in millions of input elements per second.
+ * - B/op and MB/s: bytes allocated per operation and allocation rate, summed over all
+ *   live threads via com.sun.management.ThreadMXBean, the same source JMH's GC profiler
+ *   uses. Threads that terminate mid-iteration are not counted, so parallel code should
+ *   be benchmarked on a long-lived pool.
+ * - gc: collections that happened during the measured iterations.
+ */
+public class Harness {
+    public interface Operation {
+        long run();
+    }
+
+    private static volatile long blackhole;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public Harness(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000;
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * Parses "key=value" arguments into a harness, using the given defaults.
+     */
+    public static Harness fromArgs(String[] args) {
+        return new Harness(Integer.parseInt(option(args, "warmup", "3")),
+                Integer.parseInt(option(args, "iterations", "5")),
+                Long.parseLong(option(args, "time", "200")));
+    }
+
+    public static String option(String[] args, String key, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(key + "=")) {
+                return arg.substring(key.length() + 1);
+            }
+        }
+        return defaultValue;
+    }
+
+    public static void printHeader() {
+        System.out.printf("%-26s %-15s %10s %7s %10s %10s %10s %14s %9s %4s%n",
+                "benchmark", "input", "size", "threads", "ms/op", "min ms/op", "Melem/s", "B/op", "MB/s", "gc");
+    }
+
+    public void run(String benchmark, String input, int size, int threadCount, Runnable setup, Operation operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(setup, operation);
+        }
+
+        long gcBefore = gcCount();
+        double[] nanosPerOp = new double[measurementIterations];
+        double bytesPerOp = 0;
+        double totalNanos = 0;
+        double totalBytes = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            double[] result = iteration(setup, operation);
+            nanosPerOp[i] = result[0] / result[2];
+            totalNanos += result[0];
+            totalBytes += result[1];
+            bytesPerOp += result[1] / result[2] / measurementIterations;
+        }
+        long gcs = gcCount() - gcBefore;
+
+        double mean = Arrays.stream(nanosPerOp).average().orElse(0);
+        double min = Arrays.stream(nanosPerOp).min().orElse(0);
+        System.out.printf("%-26s %-15s %10d %7d %10.3f %10.3f %10.1f %14.0f %9.1f %4d%n",
+                benchmark, input, size, threadCount, mean / 1e6, min / 1e6, size * 1e3 / mean,
+                bytesPerOp, totalBytes / (1 << 20) / (totalNanos / 1e9), gcs);
+    }
+
+    // Returns {operation nanos, allocated bytes, operations}
+    private double[] iteration(Runnable setup, Operation operation) {
+        long operations = 0;
+        long nanos = 0;
+        long checksum = 0;
+        long allocatedBefore = allocatedBytes();
+        while (nanos < iterationNanos || operations == 0) {
+            setup.run();
+            long start = System.nanoTime();
+            checksum += operation.run();
+            nanos += System.nanoTime() - start;
+            operations++;
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        blackhole ^= checksum;
+        return new double[]{nanos, allocated, operations};
+    }
+
+    private long allocatedBytes() {
+        long[] ids = threads.getAllThreadIds();
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(ids)) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+}
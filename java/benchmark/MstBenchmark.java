@@ -0,0 +1,71 @@
+package benchmark;
+
+import graph.Boruvka;
+import graph.FilterKruskal;
+import graph.Kruskal;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmarks Kruskal, Filter-Kruskal and parallel Boruvka at every thread count.
+ *
+ * Usage (all arguments optional):
+ *   java -Xmx16g benchmark.MstBenchmark sizes=100K,1M,10M degree=16 threads=1,2,4,8
+ *       warmup=3 iterations=5 time=200
+ *
+ * Inputs are random multigraphs with degree * V / 2 edges and weights in [0, 10^6), so
+ * they are connected with high probability. The size column is the edge count. Before
+ * timing, the total weight of every algorithm is compared with Kruskal's, and the
+ * benchmark stops if they differ.
+ */
+public class MstBenchmark {
+
+    public static void main(String[] args) {
+        Harness harness = Harness.fromArgs(args);
+        int[] sizes = SortingBenchmark.parseSizes(Harness.option(args, "sizes", "100K,1M"));
+        int degree = Integer.parseInt(Harness.option(args, "degree", "16"));
+        int[] threadCounts = SortingBenchmark.parseThreadCounts(Harness.option(args, "threads", "default"));
+
+        Harness.printHeader();
+        for (int vertices : sizes) {
+            Kruskal graph = randomGraph(vertices, degree, 42);
+            int edges = graph.edgeCount();
+            long expected = graph.kruskalMST().totalWeight;
+            check("FilterKruskal", FilterKruskal.mst(graph), expected);
+
+            harness.run("Kruskal", "RANDOM", edges, 1, () -> { },
+                    () -> graph.kruskalMST().totalWeight);
+            harness.run("FilterKruskal", "RANDOM", edges, 1, () -> { },
+                    () -> FilterKruskal.mst(graph).totalWeight);
+
+            for (int threads : threadCounts) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    check("Boruvka", Boruvka.mst(graph, pool), expected);
+                    harness.run("Boruvka", "RANDOM", edges, threads, () -> { },
+                            () -> Boruvka.mst(graph, pool).totalWeight);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    private static void check(String name, Kruskal.Forest forest, long expected) {
+        if (forest.totalWeight != expected) {
+            throw new IllegalStateException(name + " total weight " + forest.totalWeight
+                    + " differs from Kruskal's " + expected);
+        }
+    }
+
+    static Kruskal randomGraph(int vertices, int degree, long seed) {
+        Random random = new Random(seed);
+        Kruskal graph = new Kruskal(vertices);
+        long edges = (long) vertices * degree / 2;
+        for (long i = 0; i < edges; i++) {
+            graph.addEdge(random.nextInt(vertices), random.nextInt(vertices), random.nextInt(1_000_000));
+        }
+        return graph;
+    }
+}
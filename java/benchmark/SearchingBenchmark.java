@@ -0,0 +1,141 @@
+package benchmark;
+
+import benchmark.BenchmarkInputs.Distribution;
+import searching.BatchSearch;
+import searching.BinarySearch;
+import searching.EytzingerSearch;
+import searching.InterpolationSearch;
+import searching.LearnedIndex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks every search in the searching package. Keys are drawn from each input
+ * distribution and sorted; every operation answers the same batch of queries, half of
+ * them present keys and half random values, so Melem/s is lookups per second.
+ *
+ * Index construction (EytzingerSearch, LearnedIndex) is measured as its own benchmark,
+ * with Melem/s counting indexed keys.
+ *
+ * Usage (all arguments optional):
+ *   java -Xmx8g benchmark.SearchingBenchmark sizes=1K,1M,100M distributions=RANDOM,ZIPFIAN
+ *       queries=1M warmup=3 iterations=5 time=200
+ */
+public class SearchingBenchmark {
+
+    public static void main(String[] args) {
+        Harness harness = Harness.fromArgs(args);
+        int[] sizes = SortingBenchmark.parseSizes(Harness.option(args, "sizes", "1K,10K,100K,1M"));
+        List<Distribution> distributions =
+                SortingBenchmark.parseDistributions(Harness.option(args, "distributions", "all"));
+        int queryCount = BenchmarkInputs.parseSize(Harness.option(args, "queries", "100K"));
+
+        Harness.printHeader();
+        for (int size : sizes) {
+            for (Distribution distribution : distributions) {
+                int[] keys = BenchmarkInputs.sortedKeys(distribution, size, 42);
+                int[] queries = queries(keys, queryCount);
+                int[] sortedQueries = Arrays.copyOf(queries, queryCount);
+                Arrays.sort(sortedQueries);
+                int[] results = new int[queryCount];
+                Runnable none = () -> { };
+                String name = distribution.name();
+
+                harness.run("EytzingerSearch.build", name, size, 1, none,
+                        () -> new EytzingerSearch(keys).size());
+                harness.run("LearnedIndex.build", name, size, 1, none,
+                        () -> new LearnedIndex(keys, segments(size)).maxError());
+
+                EytzingerSearch eytzinger = new EytzingerSearch(keys);
+                InterpolationSearch interpolation = new InterpolationSearch(keys);
+                LearnedIndex learned = new LearnedIndex(keys, segments(size));
+
+                harness.run("BinarySearch", name, queryCount, 1, none, () -> {
+                    long sum = 0;
+                    for (int query : queries) {
+                        sum += BinarySearch.binarySearch(keys, query);
+                    }
+                    return sum;
+                });
+                harness.run("BinarySearch.lower", name, queryCount, 1, none, () -> {
+                    long sum = 0;
+                    for (int query : queries) {
+                        sum += BinarySearch.lowerBound(keys, query);
+                    }
+                    return sum;
+                });
+                harness.run("BinarySearch.upper", name, queryCount, 1, none, () -> {
+                    long sum = 0;
+                    for (int query : queries) {
+                        sum += BinarySearch.upperBound(keys, query);
+                    }
+                    return sum;
+                });
+                harness.run("BinarySearch.range", name, queryCount, 1, none, () -> {
+                    long sum = 0;
+                    for (int query : queries) {
+                        int[] range = BinarySearch.equalRange(keys, query);
+                        sum += range[1] - range[0];
+                    }
+                    return sum;
+                });
+                harness.run("Eytzinger", name, queryCount, 1, none, () -> {
+                    long sum = 0;
+                    for (int query : queries) {
+                        sum += eytzinger.lowerBound(query);
+                    }
+                    return sum;
+                });
+                harness.run("Eytzinger.sTree", name, queryCount, 1, none, () -> {
+                    long sum = 0;
+                    for (int query : queries) {
+                        sum += eytzinger.lowerBoundBlocked(query);
+                    }
+                    return sum;
+                });
+                harness.run("BatchSearch", name, queryCount, 1, none, () -> {
+                    BatchSearch.lowerBounds(keys, queries, results);
+                    return results[queryCount / 2];
+                });
+                harness.run("BatchSearch.sorted", name, queryCount, 1, none, () -> {
+                    BatchSearch.lowerBounds(keys, sortedQueries, results);
+                    return results[queryCount / 2];
+                });
+                harness.run("BatchSearch.lookup", name, queryCount, 1, none, () -> {
+                    BatchSearch.lookup(keys, queries, results);
+                    return results[queryCount / 2];
+                });
+                harness.run("InterpolationSearch", name, queryCount, 1, none, () -> {
+                    long sum = 0;
+                    for (int query : queries) {
+                        sum += interpolation.lowerBound(query);
+                    }
+                    return sum;
+                });
+                harness.run("LearnedIndex", name, queryCount, 1, none, () -> {
+                    long sum = 0;
+                    for (int query : queries) {
+                        sum += learned.lowerBound(query);
+                    }
+                    return sum;
+                });
+            }
+        }
+    }
+
+    private static int[] queries(int[] keys, int count) {
+        Random random = new Random(7);
+        int[] queries = new int[count];
+        for (int i = 0; i < count; i++) {
+            queries[i] = i % 2 == 0 ? keys[random.nextInt(keys.length)] : random.nextInt();
+        }
+        return queries;
+    }
+
+    // About 256 keys per leaf model
+    private static int segments(int size) {
+        return Math.max(1, size >>> 8);
+    }
+}
@@ -0,0 +1,101 @@
+package benchmark;
+
+import graph.CsrGraph;
+import graph.dijkstra.DeltaStepping;
+import graph.dijkstra.Dijkstra;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmarks sequential Dijkstra against Delta-Stepping at every thread count.
+ *
+ * Usage (all arguments optional):
+ *   java -Xmx8g benchmark.ShortestPathBenchmark sizes=100K,1M,4M threads=1,2,4,8 delta=auto
+ *       warmup=3 iterations=5 time=200
+ *
+ * Inputs:
+ * - RANDOM: 8 random out-edges per vertex with weights in [1, 1000], a low-diameter graph.
+ * - GRID: a square undirected grid with weights in [1, 100], a high-diameter graph shaped
+ *   like a road network, which has far less work per bucket.
+ *
+ * Before timing, the distances of every Delta-Stepping configuration are compared with
+ * Dijkstra's, and the benchmark stops if they differ. Speedup by core count is the ratio
+ * of the Dijkstra row to each DeltaStepping row.
+ */
+public class ShortestPathBenchmark {
+
+    public static void main(String[] args) {
+        Harness harness = Harness.fromArgs(args);
+        int[] sizes = SortingBenchmark.parseSizes(Harness.option(args, "sizes", "100K,1M"));
+        int[] threadCounts = SortingBenchmark.parseThreadCounts(Harness.option(args, "threads", "default"));
+        String deltaOption = Harness.option(args, "delta", "auto");
+
+        Harness.printHeader();
+        for (int size : sizes) {
+            for (String input : new String[]{"RANDOM", "GRID"}) {
+                CsrGraph graph = input.equals("RANDOM") ? randomGraph(size, 42) : gridGraph(size, 42);
+                long delta = deltaOption.equals("auto") ? DeltaStepping.autoDelta(graph) : Long.parseLong(deltaOption);
+                long[] expected = Dijkstra.dijkstra(graph, 0);
+                int vertices = graph.vertexCount();
+
+                harness.run("Dijkstra", input, vertices, 1, () -> { },
+                        () -> Dijkstra.dijkstra(graph, 0)[vertices - 1]);
+
+                for (int threads : threadCounts) {
+                    ForkJoinPool pool = new ForkJoinPool(threads);
+                    try {
+                        long[] actual = DeltaStepping.shortestPaths(graph, 0, delta, pool).distances();
+                        if (!Arrays.equals(expected, actual)) {
+                            throw new IllegalStateException("delta-stepping distances differ from Dijkstra on "
+                                    + input + " size " + size + " with " + threads + " threads");
+                        }
+                        harness.run("DeltaStepping", input, vertices, threads, () -> { },
+                                () -> DeltaStepping.shortestPaths(graph, 0, delta, pool).distance(vertices - 1));
+                    } finally {
+                        pool.shutdown();
+                    }
+                }
+            }
+        }
+    }
+
+    static CsrGraph randomGraph(int vertices, long seed) {
+        Random random = new Random(seed);
+        int edges = 8 * vertices;
+        int[] sources = new int[edges];
+        int[] destinations = new int[edges];
+        int[] weights = new int[edges];
+        for (int i = 0; i < edges; i++) {
+            sources[i] = random.nextInt(vertices);
+            destinations[i] = random.nextInt(vertices);
+            weights[i] = 1 + random.nextInt(1000);
+        }
+        return CsrGraph.fromEdges(vertices, sources, destinations, weights, false);
+    }
+
+    // A side x side grid with about the requested number of vertices
+    static CsrGraph gridGraph(int vertices, long seed) {
+        Random random = new Random(seed);
+        int side = Math.max(1, (int) Math.sqrt(vertices));
+        int n = side * side;
+        int[] sources = new int[2 * n];
+        int[] destinations = new int[2 * n];
+        int[] weights = new int[2 * n];
+        int edges = 0;
+        for (int v = 0; v < n; v++) {
+            if ((v + 1) % side != 0) {
+                sources[edges] = v;
+                destinations[edges] = v + 1;
+                weights[edges++] = 1 + random.nextInt(100);
+            }
+            if (v + side < n) {
+                sources[edges] = v;
+                destinations[edges] = v + side;
+                weights[edges++] = 1 + random.nextInt(100);
+            }
+        }
+        return CsrGraph.fromEdges(n, sources, destinations, weights, edges, true);
+    }
+}
@@ -0,0 +1,203 @@
+package benchmark;
+
+import benchmark.BenchmarkInputs.Distribution;
+import sorting.ExternalMergeSorting;
+import sorting.IndexSorting;
+import sorting.MergeSorting;
+import sorting.ParallelMergeSorting;
+import sorting.ParallelQuickSorting;
+import sorting.QuickSorting;
+import sorting.RadixSorting;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmarks every sort in the sorting package on every input distribution.
+ *
+ * Usage (all arguments optional):
+ *   java -Xmx8g benchmark.SortingBenchmark sizes=1K,100K,1M,10M,100M distributions=RANDOM,ZIPFIAN
+ *       threads=1,2,4,8 warmup=3 iterations=5 time=200
+ *
+ * Parallel sorts are measured once per thread count on a pool that lives for the whole
+ * benchmark, so the rows show their scaling and the allocation columns stay complete.
+ * Every operation sorts a fresh copy of the input, which is made in the untimed setup.
+ * The long[] rows sort the input widened to 64 bits with the index in the low half, and
+ * ExternalMergeSorting sorts a file of the input with 16 runs and a fan-in of 4, so every
+ * operation includes one intermediate merge pass.
+ */
+public class SortingBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Harness harness = Harness.fromArgs(args);
+        int[] sizes = parseSizes(Harness.option(args, "sizes", "1K,10K,100K,1M"));
+        List<Distribution> distributions = parseDistributions(Harness.option(args, "distributions", "all"));
+        int[] threadCounts = parseThreadCounts(Harness.option(args, "threads", "default"));
+
+        Harness.printHeader();
+        for (int size : sizes) {
+            for (Distribution distribution : distributions) {
+                int[] input = BenchmarkInputs.generate(distribution, size, 42);
+                int[] work = new int[size];
+                Runnable reset = () -> System.arraycopy(input, 0, work, 0, size);
+                String name = distribution.name();
+
+                harness.run("MergeSorting", name, size, 1, reset,
+                        () -> MergeSorting.mergeSort(work)[size / 2]);
+                harness.run("QuickSorting.v1", name, size, 1, reset,
+                        () -> QuickSorting.quick_sort_v1_recursion(work, 0, size - 1)[size / 2]);
+                harness.run("QuickSorting.v2", name, size, 1, reset,
+                        () -> QuickSorting.quick_sort_v2_stack(work, 0, size - 1)[size / 2]);
+                harness.run("RadixSorting.lsd", name, size, 1, reset,
+                        () -> {
+                            RadixSorting.radixSort(work);
+                            return work[size / 2];
+                        });
+                harness.run("RadixSorting.msd", name, size, 1, reset,
+                        () -> {
+                            RadixSorting.americanFlagSort(work);
+                            return work[size / 2];
+                        });
+                harness.run("Arrays.sort", name, size, 1, reset,
+                        () -> {
+                            Arrays.sort(work);
+                            return work[size / 2];
+                        });
+
+                long[] longInput = new long[size];
+                for (int i = 0; i < size; i++) {
+                    longInput[i] = (long) input[i] << 32 | i;
+                }
+                long[] longWork = new long[size];
+                int[] payload = new int[size];
+                Runnable resetLong = () -> System.arraycopy(longInput, 0, longWork, 0, size);
+                Runnable resetWithPayload = () -> {
+                    reset.run();
+                    resetLong.run();
+                    for (int i = 0; i < size; i++) {
+                        payload[i] = i;
+                    }
+                };
+                harness.run("RadixSorting.lsd.long", name, size, 1, resetLong,
+                        () -> {
+                            RadixSorting.radixSort(longWork);
+                            return longWork[size / 2];
+                        });
+                harness.run("RadixSorting.payload", name, size, 1, resetWithPayload,
+                        () -> {
+                            RadixSorting.radixSort(work, payload);
+                            return payload[size / 2];
+                        });
+                harness.run("RadixSorting.payload.long", name, size, 1, resetWithPayload,
+                        () -> {
+                            RadixSorting.radixSort(longWork, payload);
+                            return payload[size / 2];
+                        });
+                harness.run("IndexSorting.argsort", name, size, 1, () -> { },
+                        () -> IndexSorting.argsort(input)[size / 2]);
+                harness.run("IndexSorting.argsort.long", name, size, 1, () -> { },
+                        () -> IndexSorting.argsort(longInput)[size / 2]);
+                harness.run("IndexSorting.coSort", name, size, 1, resetWithPayload,
+                        () -> {
+                            IndexSorting.coSort(work, payload);
+                            return payload[size / 2];
+                        });
+                harness.run("IndexSorting.coSort.long", name, size, 1, resetWithPayload,
+                        () -> {
+                            IndexSorting.coSort(longWork, payload);
+                            return payload[size / 2];
+                        });
+
+                externalSort(harness, name, input);
+
+                for (int threads : threadCounts) {
+                    ForkJoinPool pool = new ForkJoinPool(threads);
+                    try {
+                        harness.run("ParallelMergeSorting", name, size, threads, reset,
+                                () -> {
+                                    ParallelMergeSorting.parallelMergeSort(work, pool);
+                                    return work[size / 2];
+                                });
+                        harness.run("ParallelQuickSorting", name, size, threads, reset,
+                                () -> {
+                                    ParallelQuickSorting.parallelQuickSort(work, pool, 1 << 13);
+                                    return work[size / 2];
+                                });
+                    } finally {
+                        pool.shutdown();
+                    }
+                }
+            }
+        }
+    }
+
+    private static void externalSort(Harness harness, String name, int[] input) throws IOException {
+        Path directory = Files.createTempDirectory("sorting-benchmark");
+        Path in = directory.resolve("input.bin");
+        Path out = directory.resolve("output.bin");
+        try {
+            try (FileChannel channel = FileChannel.open(in, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(input.length * Integer.BYTES).order(ByteOrder.nativeOrder());
+                buffer.asIntBuffer().put(input);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+
+            ExternalMergeSorting sorter = new ExternalMergeSorting(
+                    Math.max(1, input.length / 16), 4, directory, ByteOrder.nativeOrder());
+            harness.run("ExternalMergeSorting", name, input.length, 1, () -> { },
+                    () -> {
+                        try {
+                            sorter.sort(in, out);
+                            return Files.size(out);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } finally {
+            Files.deleteIfExists(in);
+            Files.deleteIfExists(out);
+            Files.delete(directory);
+        }
+    }
+
+    static int[] parseSizes(String sizes) {
+        return Arrays.stream(sizes.split(",")).mapToInt(BenchmarkInputs::parseSize).toArray();
+    }
+
+    static List<Distribution> parseDistributions(String distributions) {
+        if (distributions.equalsIgnoreCase("all")) {
+            return Arrays.asList(Distribution.values());
+        }
+        List<Distribution> result = new ArrayList<>();
+        for (String name : distributions.split(",")) {
+            result.add(Distribution.valueOf(name.trim().toUpperCase()));
+        }
+        return result;
+    }
+
+    // Powers of two up to the number of cores unless given explicitly
+    static int[] parseThreadCounts(String threads) {
+        if (!threads.equals("default")) {
+            return Arrays.stream(threads.split(",")).mapToInt(Integer::parseInt).toArray();
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int t = 1; t < cores; t *= 2) {
+            counts.add(t);
+        }
+        counts.add(cores);
+        return counts.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -3,7 +3,6 @@ package cryptographic;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
-import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 
@@ -23,15 +22,11 @@ public class AES {
     }
 
     public static byte[] encrypt(String plainText, SecretKey secretKey) throws Exception {
-        Cipher cipher = Cipher.getInstance("AES");
-        cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-        return cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+        return CryptoService.shared().encrypt("AES", secretKey, plainText.getBytes(StandardCharsets.UTF_8));
     }
 
     public static String decrypt(byte[] cipherText, SecretKey secretKey) throws Exception {
-        Cipher cipher = Cipher.getInstance("AES");
-        cipher.init(Cipher.DECRYPT_MODE, secretKey);
-        byte[] decryptedBytes = cipher.doFinal(cipherText);
+        byte[] decryptedBytes = CryptoService.shared().decrypt("AES", secretKey, cipherText);
         return new String(decryptedBytes, StandardCharsets.UTF_8);
     }
 }
@@ -0,0 +1,390 @@
+package cryptographic;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+/**
+ * CryptoService is a thread-safe facade over Cipher, Signature and Mac that keeps
+ * initialized instances in a pool instead of creating them for every message. For small
+ * messages most of the cost of a call like AES.encrypt is Cipher.getInstance, which
+ * searches the providers, and init, which expands the key; the encryption itself is a
+ * few hundred nanoseconds.
+ *
+ * How the Pool Works:
+ * 1. Instances are pooled by kind, algorithm, key and mode (encrypt, decrypt, sign,
+ *    verify), so a borrowed instance is already initialized with the right key.
+ * 2. A call borrows an idle instance (a hit) or creates and initializes a new one (a
+ *    miss), uses it, and returns it. Cipher, Signature and Mac reset themselves to their
+ *    initialized state after doFinal, sign and verify, so an instance can be reused
+ *    without a new init. Calls with explicit parameters, such as a GCM nonce, still run
+ *    init every time but skip the provider lookup.
+ * 3. An instance whose operation threw is dropped, since its state is unknown.
+ * 4. The pool is bounded twice: at most maxIdlePerKey idle instances per key, and at
+ *    most maxKeys keys, evicting the least recently used key when a new one arrives.
+ *
+ * The pool is shared, not per-thread: with thousands of virtual threads, per-thread
+ * instances would mean thousands of copies of every key schedule. A ReentrantLock
+ * guards it and is held only to push or pop an idle instance, never during a
+ * cryptographic operation, and unlike a synchronized block it does not pin a virtual
+ * thread to its carrier. Batch calls borrow one instance for the whole batch.
+ *
+ * The pool holds keys in memory for as long as their instances are idle; call clear to
+ * drop them all.
+ */
+public final class CryptoService {
+    public static final int DEFAULT_MAX_KEYS = 1024;
+    public static final int DEFAULT_MAX_IDLE_PER_KEY = 16;
+
+    private static final CryptoService shared = new CryptoService(DEFAULT_MAX_KEYS, DEFAULT_MAX_IDLE_PER_KEY);
+
+    private static final int SIGN = 1;
+    private static final int VERIFY = 2;
+
+    private final int maxIdlePerKey;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<PoolKey, ArrayDeque<Object>> idle;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public static void main(String[] args) throws Exception {
+        SecretKey aesKey = KeyGenerator.getInstance("AES").generateKey();
+        SecretKey macKey = KeyGenerator.getInstance("HmacSHA256").generateKey();
+        byte[] message = "{\"user\":42,\"action\":\"login\"}".getBytes(StandardCharsets.UTF_8);
+        CryptoService service = new CryptoService(DEFAULT_MAX_KEYS, DEFAULT_MAX_IDLE_PER_KEY);
+        int operations = 200_000;
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                Cipher cipher = Cipher.getInstance("AES");
+                cipher.init(Cipher.ENCRYPT_MODE, aesKey);
+                cipher.doFinal(message);
+            }
+            long fresh = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                service.encrypt("AES", aesKey, message);
+            }
+            long pooled = System.nanoTime() - start;
+            System.out.println("AES per message: new Cipher " + fresh / operations + "ns, pooled "
+                    + pooled / operations + "ns");
+        }
+
+        // many threads sharing the pool
+        Thread[] threads = new Thread[64];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 2_000; i++) {
+                        byte[] sealed = service.encrypt("AES", aesKey, message);
+                        if (!Arrays.equals(service.decrypt("AES", aesKey, sealed), message)) {
+                            throw new IllegalStateException("round trip failed");
+                        }
+                        service.mac("HmacSHA256", macKey, message);
+                    }
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        KeyPair keyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        List<byte[]> messages = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            messages.add(("message " + i).getBytes(StandardCharsets.UTF_8));
+        }
+        List<byte[]> signatures = service.signAll("SHA256withRSA", keyPair.getPrivate(), messages);
+        System.out.println("Batch of " + signatures.size() + " signatures, first verifies: "
+                + service.verify("SHA256withRSA", keyPair.getPublic(), messages.get(0), signatures.get(0)));
+        System.out.println("Pool: " + service.hits() + " hits, " + service.misses() + " misses, "
+                + service.evictions() + " evictions");
+    }
+
+    public CryptoService(int maxKeys, int maxIdlePerKey) {
+        if (maxKeys < 1 || maxIdlePerKey < 1) {
+            throw new IllegalArgumentException("pool bounds must be positive: " + maxKeys + ", " + maxIdlePerKey);
+        }
+        this.maxIdlePerKey = maxIdlePerKey;
+        this.idle = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PoolKey, ArrayDeque<Object>> eldest) {
+                if (size() > maxKeys) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The instance shared by AES, DES and RSA.
+     */
+    public static CryptoService shared() {
+        return shared;
+    }
+
+    /**
+     * Encrypts with a transformation that has no IV or nonce, such as "AES" (ECB) or
+     * "RSA". Modes with an IV must pass fresh parameters on every call, since a reused
+     * Cipher would repeat its IV.
+     */
+    public byte[] encrypt(String transformation, Key key, byte[] input) throws GeneralSecurityException {
+        return cipher(transformation, key, Cipher.ENCRYPT_MODE, null, input);
+    }
+
+    public byte[] decrypt(String transformation, Key key, byte[] input) throws GeneralSecurityException {
+        return cipher(transformation, key, Cipher.DECRYPT_MODE, null, input);
+    }
+
+    /**
+     * Encrypts with explicit parameters, for example a GCMParameterSpec with a fresh
+     * nonce. The pooled Cipher is initialized with them on every call.
+     */
+    public byte[] encrypt(String transformation, Key key, AlgorithmParameterSpec params, byte[] input)
+            throws GeneralSecurityException {
+        return cipher(transformation, key, Cipher.ENCRYPT_MODE, params, input);
+    }
+
+    public byte[] decrypt(String transformation, Key key, AlgorithmParameterSpec params, byte[] input)
+            throws GeneralSecurityException {
+        return cipher(transformation, key, Cipher.DECRYPT_MODE, params, input);
+    }
+
+    public List<byte[]> encryptAll(String transformation, Key key, List<byte[]> inputs)
+            throws GeneralSecurityException {
+        return cipherAll(transformation, key, Cipher.ENCRYPT_MODE, inputs);
+    }
+
+    public List<byte[]> decryptAll(String transformation, Key key, List<byte[]> inputs)
+            throws GeneralSecurityException {
+        return cipherAll(transformation, key, Cipher.DECRYPT_MODE, inputs);
+    }
+
+    public byte[] sign(String algorithm, PrivateKey key, byte[] data) throws GeneralSecurityException {
+        PoolKey poolKey = new PoolKey(Signature.class, algorithm, key, SIGN);
+        Signature signature = borrowSignature(poolKey, algorithm, key, SIGN);
+        signature.update(data);
+        byte[] result = signature.sign();
+        release(poolKey, signature);
+        return result;
+    }
+
+    public List<byte[]> signAll(String algorithm, PrivateKey key, List<byte[]> messages)
+            throws GeneralSecurityException {
+        PoolKey poolKey = new PoolKey(Signature.class, algorithm, key, SIGN);
+        Signature signature = borrowSignature(poolKey, algorithm, key, SIGN);
+        List<byte[]> results = new ArrayList<>(messages.size());
+        for (byte[] data : messages) {
+            signature.update(data);
+            results.add(signature.sign());
+        }
+        release(poolKey, signature);
+        return results;
+    }
+
+    public boolean verify(String algorithm, PublicKey key, byte[] data, byte[] signatureBytes)
+            throws GeneralSecurityException {
+        PoolKey poolKey = new PoolKey(Signature.class, algorithm, key, VERIFY);
+        Signature verifier = borrowSignature(poolKey, algorithm, key, VERIFY);
+        verifier.update(data);
+        boolean valid = verifier.verify(signatureBytes);
+        release(poolKey, verifier);
+        return valid;
+    }
+
+    public byte[] mac(String algorithm, Key key, byte[] data) throws GeneralSecurityException {
+        PoolKey poolKey = new PoolKey(Mac.class, algorithm, key, 0);
+        Mac mac = borrowMac(poolKey, algorithm, key);
+        byte[] result = mac.doFinal(data);
+        release(poolKey, mac);
+        return result;
+    }
+
+    public List<byte[]> macAll(String algorithm, Key key, List<byte[]> messages) throws GeneralSecurityException {
+        PoolKey poolKey = new PoolKey(Mac.class, algorithm, key, 0);
+        Mac mac = borrowMac(poolKey, algorithm, key);
+        List<byte[]> results = new ArrayList<>(messages.size());
+        for (byte[] data : messages) {
+            results.add(mac.doFinal(data));
+        }
+        release(poolKey, mac);
+        return results;
+    }
+
+    // Calls that found an initialized instance in the pool
+    public long hits() {
+        return hits.sum();
+    }
+
+    // Calls that had to create and initialize an instance
+    public long misses() {
+        return misses.sum();
+    }
+
+    // Keys dropped because more than maxKeys were in use
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Drops every idle instance, and with them every key the pool holds.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            idle.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] cipher(String transformation, Key key, int mode, AlgorithmParameterSpec params, byte[] input)
+            throws GeneralSecurityException {
+        // instances initialized with caller parameters are kept apart, they must never be
+        // reused without new parameters
+        PoolKey poolKey = new PoolKey(Cipher.class, transformation, key, params == null ? mode : -mode);
+        Cipher cipher = borrowCipher(poolKey, transformation, key, mode, params);
+        byte[] result = cipher.doFinal(input);
+        release(poolKey, cipher);
+        return result;
+    }
+
+    private List<byte[]> cipherAll(String transformation, Key key, int mode, List<byte[]> inputs)
+            throws GeneralSecurityException {
+        PoolKey poolKey = new PoolKey(Cipher.class, transformation, key, mode);
+        Cipher cipher = borrowCipher(poolKey, transformation, key, mode, null);
+        List<byte[]> results = new ArrayList<>(inputs.size());
+        for (byte[] input : inputs) {
+            results.add(cipher.doFinal(input));
+        }
+        release(poolKey, cipher);
+        return results;
+    }
+
+    private Cipher borrowCipher(PoolKey poolKey, String transformation, Key key, int mode,
+                                AlgorithmParameterSpec params) throws GeneralSecurityException {
+        Cipher cipher = (Cipher) borrow(poolKey);
+        if (cipher == null) {
+            cipher = Cipher.getInstance(transformation);
+            if (params == null) {
+                cipher.init(mode, key);
+                if (cipher.getIV() != null) {
+                    throw new IllegalArgumentException(transformation + " uses an IV, pass parameters with a fresh one");
+                }
+            }
+        }
+        if (params != null) {
+            cipher.init(mode, key, params);
+        }
+        return cipher;
+    }
+
+    // mode is SIGN with a PrivateKey or VERIFY with a PublicKey
+    private Signature borrowSignature(PoolKey poolKey, String algorithm, Key key, int mode)
+            throws GeneralSecurityException {
+        Signature signature = (Signature) borrow(poolKey);
+        if (signature == null) {
+            signature = Signature.getInstance(algorithm);
+            if (mode == SIGN) {
+                signature.initSign((PrivateKey) key);
+            } else {
+                signature.initVerify((PublicKey) key);
+            }
+        }
+        return signature;
+    }
+
+    private Mac borrowMac(PoolKey poolKey, String algorithm, Key key) throws GeneralSecurityException {
+        Mac mac = (Mac) borrow(poolKey);
+        if (mac == null) {
+            mac = Mac.getInstance(algorithm);
+            mac.init(key);
+        }
+        return mac;
+    }
+
+    // Returns an idle instance for poolKey, or null after counting a miss
+    private Object borrow(PoolKey poolKey) {
+        lock.lock();
+        try {
+            ArrayDeque<Object> instances = idle.get(poolKey);
+            if (instances != null && !instances.isEmpty()) {
+                hits.increment();
+                return instances.pop();
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return null;
+    }
+
+    private void release(PoolKey poolKey, Object instance) {
+        lock.lock();
+        try {
+            ArrayDeque<Object> instances = idle.computeIfAbsent(poolKey, k -> new ArrayDeque<>());
+            if (instances.size() < maxIdlePerKey) {
+                instances.push(instance);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class PoolKey {
+        private final Class<?> kind;
+        private final String algorithm;
+        private final Key key;
+        private final int mode;
+        private final int hash;
+
+        PoolKey(Class<?> kind, String algorithm, Key key, int mode) {
+            this.kind = kind;
+            this.algorithm = algorithm;
+            this.key = key;
+            this.mode = mode;
+            this.hash = 31 * (31 * (31 * kind.hashCode() + algorithm.hashCode()) + key.hashCode()) + mode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PoolKey)) {
+                return false;
+            }
+            PoolKey other = (PoolKey) o;
+            return hash == other.hash && mode == other.mode && kind == other.kind
+                    && algorithm.equals(other.algorithm) && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
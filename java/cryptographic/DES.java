@@ -3,7 +3,6 @@ package cryptographic;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
-import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 
@@ -30,17 +29,13 @@ public class DES {
     }
 
     private static String encrypt(String message, SecretKey secretKey) throws Exception {
-        Cipher cipher = Cipher.getInstance("DES");
-        cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-        byte[] encryptedBytes = cipher.doFinal(message.getBytes(StandardCharsets.UTF_8));
+        byte[] encryptedBytes = CryptoService.shared().encrypt("DES", secretKey, message.getBytes(StandardCharsets.UTF_8));
         return Base64.getEncoder().encodeToString(encryptedBytes);
     }
 
     private static String decrypt(String encryptedMessage, SecretKey secretKey) throws Exception {
-        Cipher cipher = Cipher.getInstance("DES");
-        cipher.init(Cipher.DECRYPT_MODE, secretKey);
         byte[] encryptedBytes = Base64.getDecoder().decode(encryptedMessage);
-        byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
+        byte[] decryptedBytes = CryptoService.shared().decrypt("DES", secretKey, encryptedBytes);
         return new String(decryptedBytes, StandardCharsets.UTF_8);
     }
 }
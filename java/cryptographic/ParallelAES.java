@@ -0,0 +1,444 @@
+package cryptographic;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+
+/**
+ * Parallel AES spreads bulk encryption of a large buffer or file over all cores. One
+ * Cipher runs at the speed of one core's AES instructions; both CTR and the chunked GCM
+ * format of StreamingAES are made of independent pieces, so each worker encrypts its
+ * own segments with its own Cipher and writes them at their final place in the output.
+ *
+ * How Parallel AES Works:
+ * 1. Split the input into segments at fixed offsets that depend only on the input size,
+ *    never on the number of threads.
+ * 2. CTR: segment s starting at byte offset o is encrypted with the counter block
+ *    iv + o / 16, which is exactly the keystream a single Cipher would have reached at
+ *    that offset.
+ * 3. GCM: every StreamingAES chunk has its own nonce (base nonce XOR chunk counter), and
+ *    its frame has a fixed size, so chunk i goes to byte 24 + i * (chunkSize + 20) of the
+ *    output and can be sealed by any thread.
+ * 4. Workers write straight into their part of the output buffer, so no reassembly step
+ *    is needed, and the output is byte for byte the same at any parallelism. GCM output
+ *    is the same as StreamingAES.encrypt with the same base nonce, and either side can
+ *    decrypt what the other wrote.
+ *
+ * Files are not mapped as a whole, which would limit them to 2 GB: each task maps its own
+ * group of chunks from the input and output files with FileChannel.map.
+ *
+ * Time Complexity:
+ * - O(n / p) for n bytes on p cores, until memory bandwidth is the limit.
+ *
+ * Space Complexity:
+ * - O(1) besides input and output; files are processed through mappings only.
+ *
+ * - NIST SP 800-38A, "Recommendation for Block Cipher Modes of Operation" (2001), CTR mode
+ */
+public class ParallelAES {
+    static final int CTR_SEGMENT_BYTES = 1 << 20;
+    static final int FILE_GROUP_BYTES = 1 << 23;
+    private static final int BLOCK_BYTES = 16;
+    private static final int FRAME_OVERHEAD = StreamingAES.FRAME_HEADER_BYTES + StreamingAES.TAG_BYTES;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    public static void main(String[] args) throws Exception {
+        SecretKey secretKey = KeyGenerator.getInstance("AES").generateKey();
+        int size = 256 << 20;
+        ByteBuffer plain = ByteBuffer.allocateDirect(size);
+        byte[] block = new byte[1 << 20];
+        new Random(42).nextBytes(block);
+        while (plain.hasRemaining()) {
+            plain.put(block);
+        }
+        plain.flip();
+        byte[] iv = new byte[BLOCK_BYTES];
+        byte[] baseNonce = new byte[StreamingAES.NONCE_BYTES];
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        ByteBuffer single = ByteBuffer.allocateDirect(size);
+        ByteBuffer parallel = ByteBuffer.allocateDirect(size);
+        for (int round = 0; round < 3; round++) {
+            single.clear();
+            parallel.clear();
+            long start = System.nanoTime();
+            Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(iv));
+            cipher.doFinal(plain.duplicate(), single);
+            long oneCipher = System.nanoTime() - start;
+            start = System.nanoTime();
+            ctr(plain.duplicate(), parallel, secretKey, iv, threads);
+            long segmented = System.nanoTime() - start;
+            System.out.println("CTR 256 MB: one Cipher " + oneCipher / 1_000_000 + "ms, " + threads
+                    + " threads " + segmented / 1_000_000 + "ms, equal=" + single.flip().equals(parallel.flip()));
+        }
+
+        ByteBuffer sealed = ByteBuffer.allocateDirect((int) sealedSize(size, StreamingAES.DEFAULT_CHUNK_SIZE));
+        ByteBuffer opened = ByteBuffer.allocateDirect(size);
+        long start = System.nanoTime();
+        encrypt(plain.duplicate(), sealed, secretKey, baseNonce, StreamingAES.DEFAULT_CHUNK_SIZE, threads);
+        long encryption = System.nanoTime() - start;
+        start = System.nanoTime();
+        decrypt(sealed.flip(), opened, secretKey, threads);
+        long decryption = System.nanoTime() - start;
+        System.out.println("GCM 256 MB: encrypted in " + encryption / 1_000_000 + "ms, decrypted in "
+                + decryption / 1_000_000 + "ms, equal=" + plain.equals(opened.flip()));
+
+        Path source = Files.createTempFile("parallel-aes", ".bin");
+        Path target = Files.createTempFile("parallel-aes", ".saes");
+        Path streamed = Files.createTempFile("parallel-aes", ".out");
+        try {
+            try (FileChannel out = FileChannel.open(source, StandardOpenOption.WRITE)) {
+                out.write(plain.duplicate());
+            }
+            encrypt(source, target, secretKey, threads);
+            // a file written in parallel is a regular StreamingAES stream
+            StreamingAES.decrypt(target, streamed, secretKey);
+            System.out.println("File encrypted in parallel, decrypted by StreamingAES, equal="
+                    + (Files.mismatch(source, streamed) == -1));
+        } finally {
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(target);
+            Files.deleteIfExists(streamed);
+        }
+    }
+
+    /**
+     * Encrypts or decrypts (the same operation in CTR mode) the remaining bytes of in into
+     * out, starting with the 16-byte counter block iv. Both positions advance as with
+     * Cipher.doFinal(ByteBuffer, ByteBuffer).
+     */
+    public static void ctr(ByteBuffer in, ByteBuffer out, SecretKey key, byte[] iv, int parallelism)
+            throws GeneralSecurityException {
+        ForkJoinPool pool = pool(parallelism);
+        try {
+            ctr(in, out, key, iv, pool);
+        } finally {
+            shutdown(pool);
+        }
+    }
+
+    public static void ctr(ByteBuffer in, ByteBuffer out, SecretKey key, byte[] iv, ForkJoinPool pool)
+            throws GeneralSecurityException {
+        if (iv.length != BLOCK_BYTES) {
+            throw new IllegalArgumentException("CTR needs a 16-byte counter block, got " + iv.length);
+        }
+        int length = in.remaining();
+        if (out.remaining() < length) {
+            throw new IllegalArgumentException("output has " + out.remaining() + " bytes left, needs " + length);
+        }
+        int inStart = in.position();
+        int outStart = out.position();
+        int segments = (int) ((length + (long) CTR_SEGMENT_BYTES - 1) / CTR_SEGMENT_BYTES);
+        run(pool, segments, (from, to) -> {
+            Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+            byte[] counter = new byte[BLOCK_BYTES];
+            for (int s = from; s < to; s++) {
+                int offset = s * CTR_SEGMENT_BYTES;
+                int bytes = Math.min(CTR_SEGMENT_BYTES, length - offset);
+                addBlocks(iv, offset / BLOCK_BYTES, counter);
+                cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(counter));
+                cipher.doFinal(in.slice(inStart + offset, bytes), out.slice(outStart + offset, bytes));
+            }
+        });
+        in.position(inStart + length);
+        out.position(outStart + length);
+    }
+
+    /**
+     * Bytes of the StreamingAES format for plainBytes of plaintext.
+     */
+    public static long sealedSize(long plainBytes, int chunkSize) {
+        return StreamingAES.HEADER_BYTES + plainBytes + chunkCount(plainBytes, chunkSize) * FRAME_OVERHEAD;
+    }
+
+    // StreamingAES always writes a final chunk, an empty one for empty input
+    private static long chunkCount(long plainBytes, int chunkSize) {
+        return Math.max(1, (plainBytes + chunkSize - 1) / chunkSize);
+    }
+
+    /**
+     * Encrypts the remaining bytes of plain into out in the StreamingAES format. The base
+     * nonce must never be used twice with the same key; StreamingAES.encrypt draws a
+     * random one, here it is a parameter so the output is reproducible.
+     */
+    public static void encrypt(ByteBuffer plain, ByteBuffer out, SecretKey key, byte[] baseNonce, int chunkSize,
+                               int parallelism) throws GeneralSecurityException {
+        ForkJoinPool pool = pool(parallelism);
+        try {
+            encrypt(plain, out, key, baseNonce, chunkSize, pool);
+        } finally {
+            shutdown(pool);
+        }
+    }
+
+    public static void encrypt(ByteBuffer plain, ByteBuffer out, SecretKey key, byte[] baseNonce, int chunkSize,
+                               ForkJoinPool pool) throws GeneralSecurityException {
+        StreamingAES.checkChunkSize(chunkSize);
+        if (baseNonce.length != StreamingAES.NONCE_BYTES) {
+            throw new IllegalArgumentException("base nonce must have 12 bytes, got " + baseNonce.length);
+        }
+        int length = plain.remaining();
+        long sealedBytes = sealedSize(length, chunkSize);
+        if (out.remaining() < sealedBytes) {
+            throw new IllegalArgumentException("output has " + out.remaining() + " bytes left, needs " + sealedBytes);
+        }
+        int plainStart = plain.position();
+        int outStart = out.position();
+        out.put(StreamingAES.header(chunkSize, baseNonce));
+        int chunks = (int) chunkCount(length, chunkSize);
+        run(pool, chunks, (from, to) -> {
+            int plainOffset = from * chunkSize;
+            long sealedOffset = StreamingAES.HEADER_BYTES + (long) from * (chunkSize + FRAME_OVERHEAD);
+            int plainBytes = (int) (Math.min(length, (long) to * chunkSize) - plainOffset);
+            seal(plain.slice(plainStart + plainOffset, plainBytes),
+                    out.slice(outStart + (int) sealedOffset, plainBytes + (to - from) * FRAME_OVERHEAD),
+                    key, baseNonce, chunkSize, from, to == chunks);
+        });
+        plain.position(plainStart + length);
+        out.position(outStart + (int) sealedBytes);
+    }
+
+    /**
+     * Decrypts a complete StreamingAES stream held in sealed into out and returns the
+     * plaintext length. On failure the contents of out are undefined.
+     */
+    public static int decrypt(ByteBuffer sealed, ByteBuffer out, SecretKey key, int parallelism)
+            throws IOException, GeneralSecurityException {
+        ForkJoinPool pool = pool(parallelism);
+        try {
+            return decrypt(sealed, out, key, pool);
+        } finally {
+            shutdown(pool);
+        }
+    }
+
+    public static int decrypt(ByteBuffer sealed, ByteBuffer out, SecretKey key, ForkJoinPool pool)
+            throws IOException, GeneralSecurityException {
+        int sealedStart = sealed.position();
+        if (sealed.remaining() < StreamingAES.HEADER_BYTES) {
+            throw new IOException("stream is shorter than the header");
+        }
+        byte[] baseNonce = new byte[StreamingAES.NONCE_BYTES];
+        int chunkSize = StreamingAES.readHeader(sealed.slice(sealedStart, StreamingAES.HEADER_BYTES), baseNonce);
+        long sealedBytes = sealed.remaining() - StreamingAES.HEADER_BYTES;
+        int chunks = (int) checkedChunkCount(sealedBytes, chunkSize);
+        int length = (int) (sealedBytes - (long) chunks * FRAME_OVERHEAD);
+        if (out.remaining() < length) {
+            throw new IllegalArgumentException("output has " + out.remaining() + " bytes left, needs " + length);
+        }
+        int outStart = out.position();
+        runIo(pool, chunks, (from, to) -> {
+            int plainOffset = from * chunkSize;
+            long sealedOffset = StreamingAES.HEADER_BYTES + (long) from * (chunkSize + FRAME_OVERHEAD);
+            int plainBytes = (int) (Math.min(length, (long) to * chunkSize) - plainOffset);
+            open(sealed.slice(sealedStart + (int) sealedOffset, plainBytes + (to - from) * FRAME_OVERHEAD),
+                    out.slice(outStart + plainOffset, plainBytes), key, baseNonce, chunkSize, from, to == chunks);
+        });
+        sealed.position(sealed.limit());
+        out.position(outStart + length);
+        return length;
+    }
+
+    /**
+     * Encrypts a file of any size into the StreamingAES format with a random base nonce.
+     */
+    public static void encrypt(Path source, Path target, SecretKey key, int parallelism)
+            throws IOException, GeneralSecurityException {
+        int chunkSize = StreamingAES.DEFAULT_CHUNK_SIZE;
+        byte[] baseNonce = new byte[StreamingAES.NONCE_BYTES];
+        random.nextBytes(baseNonce);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = in.size();
+            long chunks = chunkCount(length, chunkSize);
+            int chunksPerGroup = Math.max(1, FILE_GROUP_BYTES / chunkSize);
+            long groups = (chunks + chunksPerGroup - 1) / chunksPerGroup;
+            if (groups > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("file too large: " + length + " bytes");
+            }
+            out.write(StreamingAES.header(chunkSize, baseNonce), 0);
+
+            ForkJoinPool pool = pool(parallelism);
+            try {
+                runIo(pool, (int) groups, (from, to) -> {
+                    for (int g = from; g < to; g++) {
+                        long first = (long) g * chunksPerGroup;
+                        long end = Math.min(chunks, first + chunksPerGroup);
+                        long plainOffset = first * chunkSize;
+                        long plainBytes = Math.min(length, end * chunkSize) - plainOffset;
+                        long sealedOffset = StreamingAES.HEADER_BYTES + first * (chunkSize + FRAME_OVERHEAD);
+                        MappedByteBuffer plain = in.map(FileChannel.MapMode.READ_ONLY, plainOffset, plainBytes);
+                        MappedByteBuffer sealed = out.map(FileChannel.MapMode.READ_WRITE, sealedOffset,
+                                plainBytes + (end - first) * FRAME_OVERHEAD);
+                        seal(plain, sealed, key, baseNonce, chunkSize, first, end == chunks);
+                    }
+                });
+            } finally {
+                shutdown(pool);
+            }
+        }
+    }
+
+    // Seals the chunks first, first + 1, ... of plain into consecutive frames of out
+    private static void seal(ByteBuffer plain, ByteBuffer out, SecretKey key, byte[] baseNonce, int chunkSize,
+                             long first, boolean containsLast) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(StreamingAES.TRANSFORMATION);
+        byte[] nonce = new byte[StreamingAES.NONCE_BYTES];
+        ByteBuffer aad = ByteBuffer.allocate(9);
+        int length = plain.remaining();
+        long chunk = first;
+        int offset = 0;
+        do {
+            int bytes = Math.min(chunkSize, length - offset);
+            boolean last = containsLast && offset + bytes == length;
+            out.putInt(bytes + StreamingAES.TAG_BYTES | (last ? StreamingAES.FINAL_FLAG : 0));
+            plain.limit(offset + bytes).position(offset);
+            StreamingAES.seal(cipher, key, baseNonce, nonce, aad, chunk++, last, plain, out);
+            offset += bytes;
+        } while (offset < length);
+    }
+
+    // Opens consecutive frames of sealed, starting with chunk first, into out
+    private static void open(ByteBuffer sealed, ByteBuffer out, SecretKey key, byte[] baseNonce, int chunkSize,
+                             long first, boolean containsLast) throws IOException, GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(StreamingAES.TRANSFORMATION);
+        byte[] nonce = new byte[StreamingAES.NONCE_BYTES];
+        ByteBuffer aad = ByteBuffer.allocate(9);
+        long chunk = first;
+        do {
+            int value = sealed.getInt();
+            boolean last = (value & StreamingAES.FINAL_FLAG) != 0;
+            int length = value & ~StreamingAES.FINAL_FLAG;
+            StreamingAES.checkFrameLength(length, chunkSize, last, chunk);
+            boolean expectedLast = containsLast && sealed.remaining() == length;
+            if (last != expectedLast || length > sealed.remaining()) {
+                throw new IOException("chunk " + chunk + " does not match the stream length");
+            }
+            int end = sealed.position() + length;
+            sealed.limit(end);
+            StreamingAES.open(cipher, key, baseNonce, nonce, aad, chunk++, last, sealed, out);
+            sealed.limit(sealed.capacity()).position(end);
+        } while (sealed.hasRemaining());
+    }
+
+    // Chunk count of a stream with sealedBytes after the header, if the length is possible
+    private static long checkedChunkCount(long sealedBytes, int chunkSize) throws IOException {
+        long frame = (long) chunkSize + FRAME_OVERHEAD;
+        long chunks = (sealedBytes + frame - 1) / frame;
+        long lastFrame = sealedBytes - (chunks - 1) * frame;
+        if (chunks < 1 || lastFrame < FRAME_OVERHEAD || chunks > Integer.MAX_VALUE) {
+            throw new IOException("stream length " + sealedBytes + " does not fit chunk size " + chunkSize);
+        }
+        return chunks;
+    }
+
+    // counter = iv + blocks, as a 128-bit big-endian addition
+    private static void addBlocks(byte[] iv, long blocks, byte[] counter) {
+        int carry = 0;
+        for (int i = BLOCK_BYTES - 1; i >= 0; i--) {
+            int add = i >= BLOCK_BYTES - 8 ? (int) (blocks >>> (8 * (BLOCK_BYTES - 1 - i))) & 0xFF : 0;
+            int sum = (iv[i] & 0xFF) + add + carry;
+            counter[i] = (byte) sum;
+            carry = sum >>> 8;
+        }
+    }
+
+    private static ForkJoinPool pool(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        return parallelism == ForkJoinPool.getCommonPoolParallelism()
+                ? ForkJoinPool.commonPool() : new ForkJoinPool(parallelism);
+    }
+
+    private static void shutdown(ForkJoinPool pool) {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+
+    private interface Body {
+        void apply(int from, int to) throws IOException, GeneralSecurityException;
+    }
+
+    /**
+     * Runs body over [0, segments) in ranges of at least one segment, and rethrows the
+     * first checked exception of any range.
+     */
+    private static void runIo(ForkJoinPool pool, int segments, Body body) throws IOException, GeneralSecurityException {
+        try {
+            pool.invoke(new Segments(body, 0, segments, Math.max(1, segments / (4 * pool.getParallelism()))));
+        } catch (Failure failure) {
+            Throwable cause = failure.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw (GeneralSecurityException) cause;
+        }
+    }
+
+    // For bodies working on buffers in memory, which cannot fail with an IOException
+    private static void run(ForkJoinPool pool, int segments, Body body) throws GeneralSecurityException {
+        try {
+            runIo(pool, segments, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Failure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Failure(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private static final class Segments extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Body body;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        Segments(Body body, int from, int to, int grain) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                try {
+                    body.apply(from, to);
+                } catch (IOException | GeneralSecurityException e) {
+                    throw new Failure(e);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Segments(body, from, mid, grain), new Segments(body, mid, to, grain));
+        }
+    }
+}
@@ -4,11 +4,8 @@ import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.PrivateKey;
 import java.security.PublicKey;
-import java.security.Signature;
 import java.util.Base64;
 
-import javax.crypto.Cipher;
-
 public class RSA {
     public static void main(String[] args) throws Exception {
         // Generate key pair
@@ -42,33 +39,23 @@ public class RSA {
 
     private static String encrypt(String message, PublicKey publicKey) throws Exception {
         byte[] messageBytes = message.getBytes();
-        Cipher cipher = Cipher.getInstance("RSA");
-        cipher.init(Cipher.ENCRYPT_MODE, publicKey);
-        byte[] encryptedBytes = cipher.doFinal(messageBytes);
+        byte[] encryptedBytes = CryptoService.shared().encrypt("RSA", publicKey, messageBytes);
         return Base64.getEncoder().encodeToString(encryptedBytes);
     }
 
     private static String decrypt(String encryptedMessage, PrivateKey privateKey) throws Exception {
         byte[] encryptedBytes = Base64.getDecoder().decode(encryptedMessage);
-        Cipher cipher = Cipher.getInstance("RSA");
-        cipher.init(Cipher.DECRYPT_MODE, privateKey);
-        byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
+        byte[] decryptedBytes = CryptoService.shared().decrypt("RSA", privateKey, encryptedBytes);
         return new String(decryptedBytes);
     }
 
     private static String sign(String message, PrivateKey privateKey) throws Exception {
-        Signature signature = Signature.getInstance("SHA256withRSA");
-        signature.initSign(privateKey);
-        signature.update(message.getBytes());
-        byte[] signatureBytes = signature.sign();
+        byte[] signatureBytes = CryptoService.shared().sign("SHA256withRSA", privateKey, message.getBytes());
         return Base64.getEncoder().encodeToString(signatureBytes);
     }
 
     private static boolean verify(String message, String signature, PublicKey publicKey) throws Exception {
-        Signature verifier = Signature.getInstance("SHA256withRSA");
-        verifier.initVerify(publicKey);
-        verifier.update(message.getBytes());
         byte[] signatureBytes = Base64.getDecoder().decode(signature);
-        return verifier.verify(signatureBytes);
+        return CryptoService.shared().verify("SHA256withRSA", publicKey, message.getBytes(), signatureBytes);
     }
 }
@@ -0,0 +1,319 @@
+package cryptographic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Streaming AES-GCM encrypts data of any size from one channel to another in fixed-size
+ * chunks, each one authenticated on its own, so neither side ever holds more than two
+ * chunks in memory.
+ *
+ * Format:
+ * - Header, 24 bytes: magic "SAES", version, chunk size (all big-endian ints) and a random
+ *   12-byte base nonce.
+ * - Frames: a 4-byte int holding the ciphertext length, with the top bit set on the final
+ *   frame, followed by the ciphertext and its 16-byte GCM tag. Every frame except the
+ *   final one carries exactly chunk size bytes of plaintext; the final one carries 0 to
+ *   chunk size bytes.
+ *
+ * Every chunk is sealed with its own nonce, the base nonce with the chunk counter XORed
+ * into its last 8 bytes, and with the counter and a final-chunk flag as additional
+ * authenticated data. So chunks cannot be reordered (the counter would not match),
+ * dropped or duplicated, and the stream cannot be cut after any chunk but the real last
+ * one (no other chunk authenticates as final). Decryption writes each chunk as soon as
+ * its tag checks out, and fails at the end if the final chunk never arrives.
+ *
+ * Both directions run through two direct ByteBuffers allocated once per stream and the
+ * ByteBuffer methods of Cipher, so chunks are read, sealed and written without copying
+ * through byte arrays. The only allocation per chunk is the GCMParameterSpec that
+ * Cipher.init requires.
+ *
+ * - NIST SP 800-38D, "Galois/Counter Mode (GCM) and GMAC" (2007)
+ * - Hoang, Reyhanitabar, Rogaway and Vizar, "Online Authenticated-Encryption and its
+ *   Nonce-Reuse Misuse-Resistance" (2015), for the chunked STREAM construction
+ */
+public class StreamingAES {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+    static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    static final int MAGIC = 0x53414553; // "SAES"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+    static final int NONCE_BYTES = 12;
+    static final int TAG_BYTES = 16;
+    static final int FRAME_HEADER_BYTES = 4;
+    static final int FINAL_FLAG = 0x80000000;
+    static final int MAX_CHUNK_SIZE = 1 << 30;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    public static void main(String[] args) throws Exception {
+        SecretKey secretKey = KeyGenerator.getInstance("AES").generateKey();
+        Path plain = Files.createTempFile("streaming-aes", ".bin");
+        Path sealed = Files.createTempFile("streaming-aes", ".saes");
+        Path opened = Files.createTempFile("streaming-aes", ".out");
+        try {
+            byte[] block = new byte[1 << 20];
+            new Random(42).nextBytes(block);
+            try (FileChannel out = FileChannel.open(plain, StandardOpenOption.WRITE)) {
+                for (int i = 0; i < 256; i++) {
+                    out.write(ByteBuffer.wrap(block));
+                }
+            }
+
+            long start = System.nanoTime();
+            encrypt(plain, sealed, secretKey);
+            long encryption = System.nanoTime() - start;
+            start = System.nanoTime();
+            decrypt(sealed, opened, secretKey);
+            long decryption = System.nanoTime() - start;
+
+            System.out.println("256 MB encrypted in " + encryption / 1_000_000 + "ms, decrypted in "
+                    + decryption / 1_000_000 + "ms, " + (Files.size(sealed) - Files.size(plain))
+                    + " bytes overhead, equal=" + Arrays.equals(digest(plain), digest(opened)));
+
+            // flip one ciphertext bit in the middle of the file
+            try (FileChannel channel = FileChannel.open(sealed, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer one = ByteBuffer.allocate(1);
+                long position = channel.size() / 2;
+                channel.read(one, position);
+                one.put(0, (byte) (one.get(0) ^ 1)).rewind();
+                channel.write(one, position);
+            }
+            try {
+                decrypt(sealed, opened, secretKey);
+                System.out.println("Tampered file decrypted");
+            } catch (AEADBadTagException e) {
+                System.out.println("Tampered file rejected: " + e.getMessage());
+            }
+        } finally {
+            Files.deleteIfExists(plain);
+            Files.deleteIfExists(sealed);
+            Files.deleteIfExists(opened);
+        }
+    }
+
+    private static byte[] digest(Path path) throws Exception {
+        MessageDigest sha = MessageDigest.getInstance("SHA-256");
+        try (FileChannel in = FileChannel.open(path)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                sha.update(buffer);
+                buffer.clear();
+            }
+        }
+        return sha.digest();
+    }
+
+    public static void encrypt(Path source, Path target, SecretKey key) throws IOException, GeneralSecurityException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            encrypt(in, out, key, DEFAULT_CHUNK_SIZE);
+        }
+    }
+
+    public static void decrypt(Path source, Path target, SecretKey key) throws IOException, GeneralSecurityException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            decrypt(in, out, key);
+        }
+    }
+
+    /**
+     * Encrypts everything in until end of stream. Returns the number of plaintext bytes.
+     */
+    public static long encrypt(ReadableByteChannel in, WritableByteChannel out, SecretKey key, int chunkSize)
+            throws IOException, GeneralSecurityException {
+        checkChunkSize(chunkSize);
+        byte[] baseNonce = new byte[NONCE_BYTES];
+        random.nextBytes(baseNonce);
+        writeFully(out, header(chunkSize, baseNonce));
+
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        ByteBuffer current = ByteBuffer.allocateDirect(chunkSize);
+        ByteBuffer next = ByteBuffer.allocateDirect(chunkSize);
+        ByteBuffer frame = ByteBuffer.allocateDirect(FRAME_HEADER_BYTES + chunkSize + TAG_BYTES);
+        byte[] nonce = new byte[NONCE_BYTES];
+        ByteBuffer aad = ByteBuffer.allocate(9);
+        long plaintextBytes = 0;
+
+        // a full chunk is only final if nothing follows it, so one chunk is read ahead
+        boolean endOfStream = fill(in, current);
+        for (long counter = 0; ; counter++) {
+            boolean last = endOfStream;
+            if (!last) {
+                endOfStream = fill(in, next);
+                last = next.position() == 0;
+            }
+            current.flip();
+            plaintextBytes += current.remaining();
+            frame.clear();
+            frame.putInt(current.remaining() + TAG_BYTES | (last ? FINAL_FLAG : 0));
+            seal(cipher, key, baseNonce, nonce, aad, counter, last, current, frame);
+            frame.flip();
+            writeFully(out, frame);
+            if (last) {
+                return plaintextBytes;
+            }
+            ByteBuffer swap = current;
+            current = next;
+            next = swap;
+            next.clear();
+        }
+    }
+
+    /**
+     * Decrypts a stream written by encrypt. Chunks are written to out as soon as they are
+     * authenticated.
+     *
+     * @throws AEADBadTagException if a chunk was modified, reordered or moved
+     * @throws IOException if the stream is not in this format, is truncated or has data
+     *                     after the final chunk
+     */
+    public static long decrypt(ReadableByteChannel in, WritableByteChannel out, SecretKey key)
+            throws IOException, GeneralSecurityException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (fill(in, header)) {
+            throw new IOException("stream is shorter than the header");
+        }
+        header.flip();
+        byte[] baseNonce = new byte[NONCE_BYTES];
+        int chunkSize = readHeader(header, baseNonce);
+
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+        ByteBuffer frame = ByteBuffer.allocateDirect(chunkSize + TAG_BYTES);
+        ByteBuffer plain = ByteBuffer.allocateDirect(chunkSize);
+        byte[] nonce = new byte[NONCE_BYTES];
+        ByteBuffer aad = ByteBuffer.allocate(9);
+        long plaintextBytes = 0;
+
+        for (long counter = 0; ; counter++) {
+            frameHeader.clear();
+            if (fill(in, frameHeader)) {
+                throw new IOException("stream ends before its final chunk, after " + counter + " chunks");
+            }
+            int value = frameHeader.getInt(0);
+            boolean last = (value & FINAL_FLAG) != 0;
+            int length = value & ~FINAL_FLAG;
+            checkFrameLength(length, chunkSize, last, counter);
+
+            frame.clear().limit(length);
+            if (fill(in, frame)) {
+                throw new IOException("stream ends inside chunk " + counter);
+            }
+            frame.flip();
+            plain.clear();
+            open(cipher, key, baseNonce, nonce, aad, counter, last, frame, plain);
+            plain.flip();
+            plaintextBytes += plain.remaining();
+            writeFully(out, plain);
+            if (last) {
+                frameHeader.clear().limit(1);
+                if (in.read(frameHeader) > 0) {
+                    throw new IOException("data after the final chunk");
+                }
+                return plaintextBytes;
+            }
+        }
+    }
+
+    static void checkChunkSize(int chunkSize) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunk size must be in [1, " + MAX_CHUNK_SIZE + "]: " + chunkSize);
+        }
+    }
+
+    // Non-final chunks are always full, so any other length is a forgery or corruption
+    static void checkFrameLength(int length, int chunkSize, boolean last, long counter) throws IOException {
+        if (last ? length < TAG_BYTES || length > chunkSize + TAG_BYTES : length != chunkSize + TAG_BYTES) {
+            throw new IOException("invalid length " + length + " of chunk " + counter);
+        }
+    }
+
+    static ByteBuffer header(int chunkSize, byte[] baseNonce) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(chunkSize).put(baseNonce);
+        header.flip();
+        return header;
+    }
+
+    // Validates the header, copies out the base nonce and returns the chunk size
+    static int readHeader(ByteBuffer header, byte[] baseNonce) throws IOException {
+        if (header.getInt() != MAGIC) {
+            throw new IOException("not a streaming AES-GCM stream");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported version " + version);
+        }
+        int chunkSize = header.getInt();
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IOException("invalid chunk size " + chunkSize);
+        }
+        header.get(baseNonce);
+        return chunkSize;
+    }
+
+    /**
+     * Encrypts plain into out as chunk counter. nonce and aad are scratch space.
+     */
+    static void seal(Cipher cipher, SecretKey key, byte[] baseNonce, byte[] nonce, ByteBuffer aad, long counter,
+                     boolean last, ByteBuffer plain, ByteBuffer out) throws GeneralSecurityException {
+        init(cipher, Cipher.ENCRYPT_MODE, key, baseNonce, nonce, aad, counter, last);
+        cipher.doFinal(plain, out);
+    }
+
+    static void open(Cipher cipher, SecretKey key, byte[] baseNonce, byte[] nonce, ByteBuffer aad, long counter,
+                     boolean last, ByteBuffer sealed, ByteBuffer out) throws GeneralSecurityException {
+        init(cipher, Cipher.DECRYPT_MODE, key, baseNonce, nonce, aad, counter, last);
+        cipher.doFinal(sealed, out);
+    }
+
+    private static void init(Cipher cipher, int mode, SecretKey key, byte[] baseNonce, byte[] nonce, ByteBuffer aad,
+                             long counter, boolean last) throws GeneralSecurityException {
+        System.arraycopy(baseNonce, 0, nonce, 0, NONCE_BYTES);
+        for (int i = 0; i < 8; i++) {
+            nonce[NONCE_BYTES - 1 - i] ^= (byte) (counter >>> (8 * i));
+        }
+        cipher.init(mode, key, new GCMParameterSpec(8 * TAG_BYTES, nonce));
+        aad.clear();
+        aad.putLong(counter).put((byte) (last ? 1 : 0)).flip();
+        cipher.updateAAD(aad);
+    }
+
+    // Reads until buffer is full or the stream ends; returns true at end of stream
+    static boolean fill(ReadableByteChannel in, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static void writeFully(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+}
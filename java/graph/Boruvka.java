@@ -0,0 +1,209 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Boruvka's Algorithm builds a Minimum Spanning Tree in rounds. In every round each
+ * component picks its cheapest outgoing edge, and all picked edges are added at once.
+ * The picks of different components are independent, which makes it the natural MST
+ * algorithm for many cores.
+ *
+ * How Parallel Boruvka Works (every step is a parallel loop):
+ * 1. Every vertex is a component of its own, labeled by a root vertex.
+ * 2. Find minimum edges: for every edge between two different components, lower the
+ *    best edge of both components with a compare-and-set minimum. Edges inside a
+ *    component are dropped from the edge list for good.
+ * 3. Hook: every component points its root at the component on the other side of its
+ *    best edge and adds that edge to the tree. Two components that picked the same edge
+ *    would point at each other; the one with the smaller root stays the root instead.
+ * 4. Pointer jumping: replace every hook by the hook of its hook until all hooks point
+ *    at roots, which takes O(log V) passes even for long chains of hooks. Relabeling
+ *    every vertex through the hooks merges the hooked components into one each.
+ * 5. Repeat until no component has an outgoing edge. Each round at least halves the
+ *    number of components.
+ *
+ * Edges are compared as longs with the weight in the upper 32 bits and the edge index in
+ * the lower ones. Ties are therefore broken the same way everywhere, which rules out
+ * cycles of equal-weight edges and gives the same forest weight as Kruskal.
+ *
+ * Time Complexity:
+ * - Work: O((V + E) log V) over at most log V rounds.
+ * - Span: O(log V) rounds, each of polylogarithmic depth.
+ *
+ * Space Complexity:
+ * O(V + E): labels, best edges and the shrinking list of active edges.
+ *
+ * - Wikipedia: https://en.wikipedia.org/wiki/Bor%C5%AFvka%27s_algorithm
+ */
+public class Boruvka {
+    private static final int MIN_TASK_SIZE = 1 << 12;
+    private static final long NONE = Long.MAX_VALUE;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        int vertices = 1 << 18;
+        Kruskal graph = new Kruskal(vertices);
+        for (int i = 0; i < 16 * vertices; i++) {
+            graph.addEdge(random.nextInt(vertices), random.nextInt(vertices), random.nextInt(1_000_000));
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            Kruskal.Forest expected = graph.kruskalMST();
+            long kruskal = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Kruskal.Forest actual = mst(graph, ForkJoinPool.getCommonPoolParallelism());
+            long boruvka = System.nanoTime() - start;
+
+            System.out.println("Kruskal " + kruskal / 1_000_000 + "ms, Boruvka " + boruvka / 1_000_000
+                    + "ms, weights " + expected.totalWeight + " / " + actual.totalWeight);
+        }
+    }
+
+    public static Kruskal.Forest mst(Kruskal graph, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        if (parallelism == ForkJoinPool.getCommonPoolParallelism()) {
+            return mst(graph, ForkJoinPool.commonPool());
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return mst(graph, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs on an existing pool. The returned forest lists its edges in increasing index order.
+     */
+    public static Kruskal.Forest mst(Kruskal graph, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        int[] label = new int[n];
+        for (int v = 0; v < n; v++) {
+            label[v] = v;
+        }
+        AtomicLongArray best = new AtomicLongArray(n);
+        for (int v = 0; v < n; v++) {
+            best.set(v, NONE);
+        }
+        int[] active = new int[graph.edgeCount()];
+        int[] survivors = new int[graph.edgeCount()];
+        for (int e = 0; e < active.length; e++) {
+            active[e] = e;
+        }
+        int activeCount = active.length;
+        int[] accepted = new int[Math.max(0, n - 1)];
+        AtomicInteger count = new AtomicInteger();
+        int[] hook = new int[n];
+        AtomicBoolean changed = new AtomicBoolean();
+        ConcurrentLinkedQueue<int[]> kept = new ConcurrentLinkedQueue<>();
+        int vertexGrain = ParallelFor.grain(n, pool, MIN_TASK_SIZE);
+
+        while (activeCount > 0) {
+            // step 2: cheapest edge of every component, dropping edges inside components
+            int[] edges = active;
+            int[] next = survivors;
+            ParallelFor.run(pool, 0, activeCount, ParallelFor.grain(activeCount, pool, MIN_TASK_SIZE), (from, to) -> {
+                int out = from;
+                for (int i = from; i < to; i++) {
+                    int e = edges[i];
+                    int cu = label[graph.src(e)];
+                    int cv = label[graph.dest(e)];
+                    if (cu != cv) {
+                        long key = pack(graph.weight(e), e);
+                        lowerTo(best, cu, key);
+                        lowerTo(best, cv, key);
+                        next[out++] = e;
+                    }
+                }
+                kept.add(new int[]{from, out - from});
+            });
+            activeCount = 0;
+            for (int[] run = kept.poll(); run != null; run = kept.poll()) {
+                System.arraycopy(survivors, run[0], active, activeCount, run[1]);
+                activeCount += run[1];
+            }
+            if (activeCount == 0) {
+                break;
+            }
+
+            // step 3: hook every root to the component across its best edge; labels are
+            // only read here, so every thread sees the components of this round
+            ParallelFor.run(pool, 0, n, vertexGrain, (from, to) -> {
+                for (int root = from; root < to; root++) {
+                    hook[root] = root;
+                    long key = best.get(root);
+                    if (key == NONE) {
+                        continue;
+                    }
+                    int e = (int) key;
+                    int cu = label[graph.src(e)];
+                    int other = cu == root ? label[graph.dest(e)] : cu;
+                    // both sides picked the same edge: only the larger root hooks and adds it
+                    if (best.get(other) == key && root < other) {
+                        continue;
+                    }
+                    hook[root] = other;
+                    accepted[count.getAndIncrement()] = e;
+                }
+            });
+
+            // step 4: pointer jumping on the hooks until every hook is a root. Concurrent
+            // updates are safe because every value read is still an ancestor.
+            changed.set(true);
+            while (changed.getAndSet(false)) {
+                ParallelFor.run(pool, 0, n, vertexGrain, (from, to) -> {
+                    boolean jumped = false;
+                    for (int v = from; v < to; v++) {
+                        int h = hook[v];
+                        int hh = hook[h];
+                        if (h != hh) {
+                            hook[v] = hh;
+                            jumped = true;
+                        }
+                    }
+                    if (jumped) {
+                        changed.set(true);
+                    }
+                });
+            }
+            ParallelFor.run(pool, 0, n, vertexGrain, (from, to) -> {
+                for (int v = from; v < to; v++) {
+                    label[v] = hook[label[v]];
+                    best.set(v, NONE);
+                }
+            });
+        }
+
+        int[] forest = Arrays.copyOf(accepted, count.get());
+        Arrays.sort(forest);
+        long totalWeight = 0;
+        for (int e : forest) {
+            totalWeight += graph.weight(e);
+        }
+        return new Kruskal.Forest(forest, totalWeight, n - forest.length);
+    }
+
+    private static long pack(int weight, int edge) {
+        return ((long) weight << 32) | (edge & 0xFFFFFFFFL);
+    }
+
+    private static void lowerTo(AtomicLongArray best, int i, long key) {
+        long current = best.get(i);
+        while (key < current) {
+            if (best.compareAndSet(i, current, key)) {
+                return;
+            }
+            current = best.get(i);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package graph;
 
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * Breadth-First Search (BFS) is a graph traversal algorithm that explores all the vertices
@@ -33,45 +33,60 @@ import java.util.*;
 
 
 public class BreadthFirstSearch{
-    private static Map<Integer, List<Integer>> adjacencyList = new HashMap<>();
 
     public static void main(String[] args) {
         // Create a graph
-        addEdge(1, 2);
-        addEdge(1, 3);
-        addEdge(2, 4);
-        addEdge(2, 5);
-        addEdge(3, 5);
-        addEdge(4, 5);
-        addEdge(4, 6);
+        int[] sources = {1, 1, 2, 2, 3, 4, 4};
+        int[] destinations = {2, 3, 4, 5, 5, 5, 6};
+        CsrGraph graph = CsrGraph.fromEdges(7, sources, destinations, true); // For an undirected graph
 
         // Perform BFS starting from vertex 1
         System.out.println("BFS starting from vertex 1:");
-        bfs(1);
-    }
-
-    private static void addEdge(int source, int destination) {
-        adjacencyList.computeIfAbsent(source, k -> new ArrayList<>()).add(destination);
-        adjacencyList.computeIfAbsent(destination, k -> new ArrayList<>()).add(source); // For an undirected graph
+        for (int vertex : bfs(graph, 1)) {
+            System.out.print(vertex + " ");
+        }
     }
 
-    private static void bfs(int startVertex) {
-        Queue<Integer> queue = new LinkedList<>();
-        Set<Integer> visited = new HashSet<>();
+    /**
+     * Returns the vertices reachable from startVertex in the order BFS visits them.
+     */
+    public static int[] bfs(Graph graph, int startVertex) {
+        // Every vertex is enqueued at most once, so a plain array serves as the queue
+        int[] queue = new int[graph.vertexCount()];
+        boolean[] visited = new boolean[graph.vertexCount()];
+        int head = 0;
+        int tail = 0;
 
-        queue.offer(startVertex);
-        visited.add(startVertex);
+        queue[tail++] = startVertex;
+        visited[startVertex] = true;
+        TraversalMetrics.Run run = TraversalMetrics.ENABLED ? TraversalMetrics.start("BFS") : null;
+        long scanned = 0;
+        // the queue holds one level after another; levelEnd is where the current one stops
+        int levelEnd = 0;
 
-        while (!queue.isEmpty()) {
-            int currentVertex = queue.poll();
-            System.out.print(currentVertex + " ");
+        while (head < tail) {
+            if (TraversalMetrics.ENABLED && head == levelEnd) {
+                run.frontier(tail - head);
+                levelEnd = tail;
+            }
+            int currentVertex = queue[head++];
+            if (TraversalMetrics.ENABLED) {
+                scanned += graph.end(currentVertex) - graph.begin(currentVertex);
+            }
 
-            for (int neighbor : adjacencyList.getOrDefault(currentVertex, Collections.emptyList())) {
-                if (!visited.contains(neighbor)) {
-                    queue.offer(neighbor);
-                    visited.add(neighbor);
+            for (int e = graph.begin(currentVertex); e < graph.end(currentVertex); e++) {
+                int neighbor = graph.target(e);
+                if (!visited[neighbor]) {
+                    queue[tail++] = neighbor;
+                    visited[neighbor] = true;
                 }
             }
         }
+        if (TraversalMetrics.ENABLED) {
+            run.settled(tail);
+            run.scanned(scanned);
+            TraversalMetrics.finish(run);
+        }
+        return Arrays.copyOf(queue, tail);
     }
-}
\ No newline at end of file
+}
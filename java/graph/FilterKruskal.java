@@ -0,0 +1,146 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Filter-Kruskal is a variant of Kruskal's Algorithm that avoids sorting most of the
+ * edges. On large graphs the tree is usually complete long before the heavy edges are
+ * reached, and every heavy edge whose endpoints are already connected could never have
+ * been used anyway.
+ *
+ * How Filter-Kruskal Works:
+ * 1. If only a few edges are left, sort them and run plain Kruskal on them.
+ * 2. Otherwise pick a random pivot and partition the edges, as in Quick Sort, into the
+ *    light ones (up to the pivot) and the heavy ones (after it).
+ * 3. Recurse on the light edges first, which adds all of their tree edges to the forest.
+ * 4. Filter: drop every heavy edge whose endpoints are now in the same component, then
+ *    recurse on the survivors. Stop as soon as V - 1 edges are accepted.
+ *
+ * Each edge is packed into one long, weight in the upper 32 bits and edge index in the
+ * lower ones, so edges are ordered by weight and then by index. That is the order of the
+ * stable sort in Kruskal, so both accept exactly the same edges.
+ *
+ * Time Complexity:
+ * - O(E + V log V log(E / V)) expected on random graphs, O(E log E) in the worst case.
+ *   The filter makes most heavy edges cost O(alpha(V)) instead of a share of the sort.
+ *
+ * Space Complexity:
+ * O(E) for the packed edges.
+ *
+ * - Osipov, Sanders and Singler, "The Filter-Kruskal Minimum Spanning Tree Algorithm" (2009)
+ */
+public class FilterKruskal {
+    private static final int SORT_THRESHOLD = 1 << 16;
+
+    private final Kruskal graph;
+    private final UnionFind components;
+    private final int[] accepted;
+    private final Random random = new Random(42);
+    private int count;
+    private long totalWeight;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        int vertices = 1 << 18;
+        Kruskal graph = new Kruskal(vertices);
+        for (int i = 0; i < 16 * vertices; i++) {
+            graph.addEdge(random.nextInt(vertices), random.nextInt(vertices), random.nextInt(1_000_000));
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            Kruskal.Forest expected = graph.kruskalMST();
+            long kruskal = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Kruskal.Forest actual = mst(graph);
+            long filter = System.nanoTime() - start;
+
+            System.out.println("Kruskal " + kruskal / 1_000_000 + "ms, Filter-Kruskal " + filter / 1_000_000
+                    + "ms, weights " + expected.totalWeight + " / " + actual.totalWeight
+                    + ", same edges=" + Arrays.equals(expected.edges, actual.edges));
+        }
+    }
+
+    private FilterKruskal(Kruskal graph) {
+        this.graph = graph;
+        this.components = new UnionFind(graph.vertexCount());
+        this.accepted = new int[Math.max(0, graph.vertexCount() - 1)];
+    }
+
+    public static Kruskal.Forest mst(Kruskal graph) {
+        long[] edges = new long[graph.edgeCount()];
+        for (int e = 0; e < edges.length; e++) {
+            edges[e] = pack(graph.weight(e), e);
+        }
+        FilterKruskal state = new FilterKruskal(graph);
+        state.filterKruskal(edges, 0, edges.length);
+        return new Kruskal.Forest(Arrays.copyOf(state.accepted, state.count), state.totalWeight,
+                state.components.componentCount());
+    }
+
+    private static long pack(int weight, int edge) {
+        return ((long) weight << 32) | (edge & 0xFFFFFFFFL);
+    }
+
+    private void filterKruskal(long[] edges, int lo, int hi) {
+        if (count == accepted.length) {
+            return;
+        }
+        if (hi - lo <= SORT_THRESHOLD) {
+            kruskal(edges, lo, hi);
+            return;
+        }
+
+        long pivot = edges[lo + random.nextInt(hi - lo)];
+        int mid = partition(edges, lo, hi, pivot);
+        if (mid == hi) {
+            // the pivot was the largest edge, partitioning made no progress
+            kruskal(edges, lo, hi);
+            return;
+        }
+        filterKruskal(edges, lo, mid);
+        if (count == accepted.length) {
+            return;
+        }
+        filterKruskal(edges, mid, filter(edges, mid, hi));
+    }
+
+    private void kruskal(long[] edges, int lo, int hi) {
+        Arrays.sort(edges, lo, hi);
+        for (int i = lo; i < hi && count < accepted.length; i++) {
+            int edge = (int) edges[i];
+            if (components.union(graph.src(edge), graph.dest(edge))) {
+                accepted[count++] = edge;
+                totalWeight += graph.weight(edge);
+            }
+        }
+    }
+
+    // Moves the edges <= pivot to the front and returns where the others start
+    private static int partition(long[] edges, int lo, int hi, long pivot) {
+        int i = lo;
+        for (int j = lo; j < hi; j++) {
+            if (edges[j] <= pivot) {
+                long tmp = edges[i];
+                edges[i] = edges[j];
+                edges[j] = tmp;
+                i++;
+            }
+        }
+        return i;
+    }
+
+    // Keeps the edges that still connect two components at the front and returns their end
+    private int filter(long[] edges, int lo, int hi) {
+        int kept = lo;
+        for (int i = lo; i < hi; i++) {
+            int edge = (int) edges[i];
+            if (components.find(graph.src(edge)) != components.find(graph.dest(edge))) {
+                edges[kept++] = edges[i];
+            }
+        }
+        return kept;
+    }
+}
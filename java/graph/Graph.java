@@ -0,0 +1,32 @@
+package graph;
+
+/**
+ * Read access to a graph in compressed sparse row form: the edges of every vertex are
+ * the consecutive edge ids begin(v) .. end(v) - 1. Traversals only depend on this
+ * interface, so they run unchanged on a CsrGraph built on the heap and on a MappedGraph
+ * read straight from a memory-mapped file.
+ *
+ * Edge ids are ints, so a graph holds at most Integer.MAX_VALUE - 8 stored edges
+ * (undirected edges count twice).
+ */
+public interface Graph {
+    int vertexCount();
+
+    int edgeCount();
+
+    // First edge id of vertex v
+    int begin(int v);
+
+    // One past the last edge id of vertex v
+    int end(int v);
+
+    default int degree(int v) {
+        return end(v) - begin(v);
+    }
+
+    int target(int e);
+
+    boolean hasWeights();
+
+    int weight(int e);
+}
@@ -0,0 +1,489 @@
+package graph;
+
+import graph.dijkstra.Dijkstra;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * GraphFile is a compact binary file format for graphs in compressed sparse row form,
+ * laid out so that the file can be memory-mapped and traversed in place.
+ *
+ * Layout (all values little-endian):
+ * - Header, 64 bytes: magic "CSRG", version, flags (bit 0: weighted), vertex count,
+ *   edge count and the byte positions of the three sections.
+ * - Offsets: V + 1 ints, the same offsets array as in CsrGraph.
+ * - Targets: E ints.
+ * - Weights: E ints, only if the graph is weighted.
+ * Sections start at multiples of 8 bytes.
+ *
+ * open maps the sections read-only with FileChannel.map and returns a MappedGraph, so
+ * BFS, DFS and Dijkstra run directly on the page cache. Opening reads 64 bytes, whatever
+ * the size of the graph.
+ *
+ * How the Text Converter Works:
+ * The input is an edge list with one "source destination [weight]" line per edge,
+ * separated by spaces, tabs or commas; lines starting with # or % are comments.
+ * 1. Map the text file and split it into chunks at line boundaries.
+ * 2. Pass 1, in parallel over chunks: count the edges and find the largest vertex id.
+ * 3. Pass 2, in parallel: count the degree of every vertex with atomic increments, then
+ *    turn the degrees into offsets with a prefix sum, written straight into the mapped
+ *    output file.
+ * 4. Pass 3, in parallel: parse again and place every edge at its source vertex's next
+ *    free slot, claimed with an atomic increment, in the mapped target section.
+ * 5. Sort every adjacency list in parallel so the output does not depend on thread
+ *    timing, then write the header.
+ * Nothing proportional to E is ever held on the heap; the heap holds one int per vertex.
+ *
+ * Time Complexity:
+ * - write, convert: O(V + E); convert parses the text three times on all cores.
+ * - open: O(1)
+ *
+ * Space Complexity:
+ * - File: 64 + 4 (V + 1) + 4 E (+ 4 E with weights) bytes.
+ */
+public class GraphFile {
+    private static final int MAGIC = 0x47525343; // "CSRG" in little-endian byte order
+    private static final int VERSION = 1;
+    private static final int FLAG_WEIGHTED = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    private static final int TEXT_SEGMENT_SHIFT = 30;
+    private static final int MAX_EDGES = Integer.MAX_VALUE - 8;
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("graph-file");
+        Path text = directory.resolve("edges.txt");
+        Path binary = directory.resolve("edges.csrg");
+        try {
+            int vertices = 1_000_000;
+            int edges = 5_000_000;
+            Random random = new Random(42);
+            int[] sources = new int[edges];
+            int[] destinations = new int[edges];
+            int[] weights = new int[edges];
+            try (BufferedWriter writer = Files.newBufferedWriter(text)) {
+                writer.write("# source destination weight\n");
+                for (int i = 0; i < edges; i++) {
+                    sources[i] = random.nextInt(vertices);
+                    destinations[i] = random.nextInt(vertices);
+                    weights[i] = 1 + random.nextInt(1000);
+                    writer.write(sources[i] + " " + destinations[i] + " " + weights[i] + "\n");
+                }
+            }
+
+            long start = System.nanoTime();
+            convert(text, binary, true);
+            long converted = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            MappedGraph mapped = open(binary);
+            long opened = System.nanoTime() - start;
+
+            // the converter finds the vertex count from the largest id it sees
+            CsrGraph heap = CsrGraph.fromEdges(mapped.vertexCount(), sources, destinations, weights, true);
+            start = System.nanoTime();
+            long[] expected = Dijkstra.dijkstra(heap, 0);
+            long onHeap = System.nanoTime() - start;
+            start = System.nanoTime();
+            long[] actual = Dijkstra.dijkstra(mapped, 0);
+            long onMapped = System.nanoTime() - start;
+
+            System.out.println("Converted " + Files.size(text) / (1 << 20) + " MB of text in "
+                    + converted / 1_000_000 + "ms to " + Files.size(binary) / (1 << 20) + " MB, opened in "
+                    + opened / 1_000 + "us");
+            System.out.println("Dijkstra on heap " + onHeap / 1_000_000 + "ms, mapped " + onMapped / 1_000_000
+                    + "ms, equal=" + Arrays.equals(expected, actual)
+                    + ", BFS reached " + BreadthFirstSearch.bfs(mapped, 0).length
+                    + ", components " + (Arrays.stream(DepthFirstSearch.connectedComponents(mapped)).max().orElse(-1) + 1));
+        } finally {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(binary);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Writes any graph, for example a CsrGraph, in the binary format.
+     */
+    public static void write(Graph graph, Path path) throws IOException {
+        int vertices = graph.vertexCount();
+        int edges = graph.edgeCount();
+        boolean weighted = graph.hasWeights();
+        long[] sections = sectionPositions(vertices, edges, weighted);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put(header(vertices, edges, weighted, sections));
+            for (int v = 0; v < vertices; v++) {
+                putInt(channel, buffer, graph.begin(v));
+            }
+            putInt(channel, buffer, edges);
+            pad(channel, buffer, sections[1]);
+            for (int e = 0; e < edges; e++) {
+                putInt(channel, buffer, graph.target(e));
+            }
+            if (weighted) {
+                pad(channel, buffer, sections[2]);
+                for (int e = 0; e < edges; e++) {
+                    putInt(channel, buffer, graph.weight(e));
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Maps a graph file read-only. The returned graph stays valid after this method
+     * returns; the mapping is released when the graph is garbage collected.
+     */
+    public static MappedGraph open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a graph file");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(path + " has unsupported version " + header.getInt(4));
+            }
+            boolean weighted = (header.getInt(8) & FLAG_WEIGHTED) != 0;
+            long vertices = header.getLong(16);
+            long edges = header.getLong(24);
+            if (vertices < 0 || vertices >= Integer.MAX_VALUE || edges < 0 || edges > MAX_EDGES) {
+                throw new IOException(path + " has invalid counts: " + vertices + " vertices, " + edges + " edges");
+            }
+            long[] sections = sectionPositions((int) vertices, (int) edges, weighted);
+            if (header.getLong(32) != sections[0] || header.getLong(40) != sections[1]
+                    || header.getLong(48) != sections[2] || channel.size() < sections[3]) {
+                throw new IOException(path + " is truncated or has an invalid layout");
+            }
+
+            FileChannel.MapMode mode = FileChannel.MapMode.READ_ONLY;
+            return new MappedGraph((int) vertices, (int) edges,
+                    MappedInts.map(channel, mode, sections[0], vertices + 1),
+                    MappedInts.map(channel, mode, sections[1], edges),
+                    weighted ? MappedInts.map(channel, mode, sections[2], edges) : null);
+        }
+    }
+
+    public static void convert(Path edgeList, Path output, boolean undirected) throws IOException {
+        convert(edgeList, output, undirected, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts a text edge list into a graph file. Vertex ids must be non-negative; the
+     * vertex count is the largest id plus one. Either every line has a weight or none does.
+     */
+    public static void convert(Path edgeList, Path output, boolean undirected, ForkJoinPool pool) throws IOException {
+        TextFile text = TextFile.map(edgeList);
+        long[] chunkStarts = chunkStarts(text, pool.getParallelism());
+        int chunks = chunkStarts.length - 1;
+
+        // pass 1: edge counts, largest vertex id and weight columns per chunk
+        long[] stored = new long[chunks];
+        int[] maxVertex = new int[chunks];
+        int[] columns = new int[chunks];
+        ParallelFor.run(pool, 0, chunks, 1, (from, to) -> {
+            for (int c = from; c < to; c++) {
+                int chunk = c;
+                maxVertex[chunk] = -1;
+                text.parse(chunkStarts[c], chunkStarts[c + 1], (u, v, w, weighted) -> {
+                    int lineColumns = weighted ? 3 : 2;
+                    if (columns[chunk] != 0 && columns[chunk] != lineColumns) {
+                        throw new IllegalArgumentException("edge list mixes weighted and unweighted lines");
+                    }
+                    columns[chunk] = lineColumns;
+                    stored[chunk] += undirected && u != v ? 2 : 1;
+                    maxVertex[chunk] = Math.max(maxVertex[chunk], Math.max(u, v));
+                });
+            }
+        });
+        long totalEdges = 0;
+        int maxId = -1;
+        int weightColumns = 0;
+        for (int c = 0; c < chunks; c++) {
+            totalEdges += stored[c];
+            maxId = Math.max(maxId, maxVertex[c]);
+            if (columns[c] != 0 && weightColumns != 0 && columns[c] != weightColumns) {
+                throw new IllegalArgumentException("edge list mixes weighted and unweighted lines");
+            }
+            weightColumns = Math.max(weightColumns, columns[c]);
+        }
+        if (totalEdges > MAX_EDGES) {
+            throw new IllegalArgumentException("too many edges for int edge ids: " + totalEdges);
+        }
+        if (maxId == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("vertex id " + maxId + " is too large");
+        }
+        int vertices = maxId + 1;
+        int edges = (int) totalEdges;
+        boolean weighted = weightColumns == 3;
+        long[] sections = sectionPositions(vertices, edges, weighted);
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileChannel.MapMode mode = FileChannel.MapMode.READ_WRITE;
+            MappedInts offsets = MappedInts.map(channel, mode, sections[0], vertices + 1L);
+            MappedInts targets = MappedInts.map(channel, mode, sections[1], edges);
+            MappedInts weights = weighted ? MappedInts.map(channel, mode, sections[2], edges) : null;
+
+            // pass 2: degrees, then offsets; the degree array becomes the next free slots
+            AtomicIntegerArray next = new AtomicIntegerArray(vertices);
+            ParallelFor.run(pool, 0, chunks, 1, (from, to) -> {
+                for (int c = from; c < to; c++) {
+                    text.parse(chunkStarts[c], chunkStarts[c + 1], (u, v, w, hasWeight) -> {
+                        next.incrementAndGet(u);
+                        if (undirected && u != v) {
+                            next.incrementAndGet(v);
+                        }
+                    });
+                }
+            });
+            int offset = 0;
+            for (int v = 0; v < vertices; v++) {
+                int degree = next.get(v);
+                offsets.put(v, offset);
+                next.set(v, offset);
+                offset += degree;
+            }
+            offsets.put(vertices, offset);
+
+            // pass 3: place every edge at the next free slot of its source
+            ParallelFor.run(pool, 0, chunks, 1, (from, to) -> {
+                for (int c = from; c < to; c++) {
+                    text.parse(chunkStarts[c], chunkStarts[c + 1], (u, v, w, hasWeight) -> {
+                        place(next.getAndIncrement(u), v, w, targets, weights);
+                        if (undirected && u != v) {
+                            place(next.getAndIncrement(v), u, w, targets, weights);
+                        }
+                    });
+                }
+            });
+
+            ParallelFor.run(pool, 0, vertices, ParallelFor.grain(vertices, pool, 1 << 12), (from, to) ->
+                    sortAdjacencies(from, to, offsets, targets, weights));
+
+            // Mapping an empty section does not grow the file, so without edges it would end
+            // before the aligned targets section that open expects
+            if (channel.size() < sections[3]) {
+                channel.write(ByteBuffer.allocate(1), sections[3] - 1);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(header(vertices, edges, weighted, sections));
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    private static void place(int slot, int target, int weight, MappedInts targets, MappedInts weights) {
+        targets.put(slot, target);
+        if (weights != null) {
+            weights.put(slot, weight);
+        }
+    }
+
+    // Sorts each adjacency list by target, then weight, through one buffer per task
+    private static void sortAdjacencies(int from, int to, MappedInts offsets, MappedInts targets, MappedInts weights) {
+        long[] buffer = new long[16];
+        for (int v = from; v < to; v++) {
+            int begin = offsets.get(v);
+            int degree = offsets.get(v + 1L) - begin;
+            if (degree < 2) {
+                continue;
+            }
+            if (buffer.length < degree) {
+                buffer = new long[Math.max(degree, 2 * buffer.length)];
+            }
+            for (int i = 0; i < degree; i++) {
+                long weight = weights == null ? 0 : weights.get(begin + i);
+                buffer[i] = ((long) targets.get(begin + i) << 32) | (weight & 0xFFFFFFFFL);
+            }
+            Arrays.sort(buffer, 0, degree);
+            for (int i = 0; i < degree; i++) {
+                targets.put(begin + i, (int) (buffer[i] >>> 32));
+                if (weights != null) {
+                    weights.put(begin + i, (int) buffer[i]);
+                }
+            }
+        }
+    }
+
+    // {offsets, targets, weights, end of file} byte positions
+    private static long[] sectionPositions(int vertices, int edges, boolean weighted) {
+        long offsets = HEADER_BYTES;
+        long targets = align8(offsets + 4L * (vertices + 1));
+        long weights = weighted ? align8(targets + 4L * edges) : 0;
+        long end = weighted ? weights + 4L * edges : targets + 4L * edges;
+        return new long[]{offsets, targets, weights, end};
+    }
+
+    private static long align8(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static ByteBuffer header(int vertices, int edges, boolean weighted, long[] sections) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(weighted ? FLAG_WEIGHTED : 0).putInt(0);
+        header.putLong(vertices).putLong(edges);
+        header.putLong(sections[0]).putLong(sections[1]).putLong(sections[2]).putLong(0);
+        header.flip();
+        return header;
+    }
+
+    private static void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < 4) {
+            flush(channel, buffer);
+        }
+        buffer.putInt(value);
+    }
+
+    // Writes zero bytes up to the given file position
+    private static void pad(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long written = channel.position() + buffer.position();
+        while (written < position) {
+            if (!buffer.hasRemaining()) {
+                flush(channel, buffer);
+            }
+            buffer.put((byte) 0);
+            written++;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Splits the text into chunks that all start at the beginning of a line
+    private static long[] chunkStarts(TextFile text, int parallelism) {
+        long size = text.size;
+        int chunks = (int) Math.max(1, Math.min(size / MIN_CHUNK_BYTES, parallelism * 8L));
+        long[] starts = new long[chunks + 1];
+        for (int c = 1; c < chunks; c++) {
+            long p = Math.max(starts[c - 1], size * c / chunks);
+            while (p < size && p > 0 && text.get(p - 1) != '\n') {
+                p++;
+            }
+            starts[c] = p;
+        }
+        starts[chunks] = size;
+        return starts;
+    }
+
+    private interface EdgeSink {
+        void edge(int u, int v, int w, boolean weighted);
+    }
+
+    /**
+     * A read-only mapping of a text file of any size, in 1 GB segments.
+     */
+    private static final class TextFile {
+        private final MappedByteBuffer[] segments;
+        private final long size;
+
+        private TextFile(MappedByteBuffer[] segments, long size) {
+            this.segments = segments;
+            this.size = size;
+        }
+
+        static TextFile map(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                long segmentBytes = 1L << TEXT_SEGMENT_SHIFT;
+                MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + segmentBytes - 1) >>> TEXT_SEGMENT_SHIFT)];
+                for (int s = 0; s < segments.length; s++) {
+                    long position = s * segmentBytes;
+                    segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentBytes, size - position));
+                }
+                return new TextFile(segments, size);
+            }
+        }
+
+        byte get(long position) {
+            return segments[(int) (position >>> TEXT_SEGMENT_SHIFT)].get((int) position & ((1 << TEXT_SEGMENT_SHIFT) - 1));
+        }
+
+        // Parses the lines that start in [start, end); chunk boundaries are line starts
+        void parse(long start, long end, EdgeSink sink) {
+            long p = start;
+            long[] fields = new long[3];
+            while (p < end) {
+                long lineStart = p;
+                int count = 0;
+                boolean comment = false;
+                while (p < size) {
+                    byte b = get(p);
+                    if (b == '\n') {
+                        break;
+                    }
+                    if (b == ' ' || b == '\t' || b == ',' || b == '\r') {
+                        p++;
+                    } else if (count == 0 && (b == '#' || b == '%')) {
+                        comment = true;
+                        p++;
+                    } else if (comment) {
+                        p++;
+                    } else {
+                        if (count == 3) {
+                            throw new IllegalArgumentException("more than 3 columns in line at byte " + lineStart);
+                        }
+                        boolean negative = b == '-';
+                        if (negative) {
+                            p++;
+                        }
+                        long value = 0;
+                        int digits = 0;
+                        while (p < size && (b = get(p)) >= '0' && b <= '9') {
+                            value = value * 10 + (b - '0');
+                            if (value > Integer.MAX_VALUE + 1L) {
+                                throw new IllegalArgumentException("number too large in line at byte " + lineStart);
+                            }
+                            digits++;
+                            p++;
+                        }
+                        if (digits == 0 || (p < size && b != ' ' && b != '\t' && b != ',' && b != '\r' && b != '\n')) {
+                            throw new IllegalArgumentException("not a number in line at byte " + lineStart);
+                        }
+                        fields[count++] = negative ? -value : value;
+                    }
+                }
+                p++;
+
+                if (comment || count == 0) {
+                    continue;
+                }
+                if (count == 1) {
+                    throw new IllegalArgumentException("line at byte " + lineStart + " has a single column");
+                }
+                if (fields[0] < 0 || fields[1] < 0 || fields[0] > Integer.MAX_VALUE || fields[1] > Integer.MAX_VALUE
+                        || fields[2] > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("invalid vertex id or weight in line at byte " + lineStart);
+                }
+                sink.edge((int) fields[0], (int) fields[1], count == 3 ? (int) fields[2] : 0, count == 3);
+                fields[2] = 0;
+            }
+        }
+    }
+}
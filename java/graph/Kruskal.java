@@ -1,6 +1,8 @@
 package graph;
 
-import java.util.*;
+import sorting.IndexSorting;
+
+import java.util.Arrays;
 
 /**
  * Kruskal's Algorithm is a greedy algorithm that finds the Minimum Spanning Tree (MST)
@@ -14,95 +16,162 @@ import java.util.*;
  * 3. Iterate through the sorted edges:
  *    - Add the smallest edge to the MST set if adding it doesn't form a cycle.
  *    - Use the Union-Find (Disjoint Set Union) data structure to check for cycles.
- * 4. The MST set now contains the minimum spanning tree.
+ * 4. Stop as soon as V - 1 edges are accepted: the tree is complete and no later edge
+ *    can be added.
  *
  * The Union-Find data structure is used to efficiently check whether adding an edge
  * creates a cycle. It helps to keep track of connected components in the graph.
  *
+ * Edges are stored as a struct of arrays (source, destination and weight columns that
+ * grow as edges are added) rather than one object per edge. The sort computes a
+ * permutation of the weight column with IndexSorting.argsort, a stable radix sort, so no
+ * edge is ever moved or boxed.
+ *
+ * On a disconnected graph the result is a minimum spanning forest: one minimum spanning
+ * tree per connected component, V - C edges for C components.
+ *
  * Time Complexity:
- * - O(E * log(E) + E * log(V)), where E is the number of edges and V is the number of
- *   vertices in the graph. The algorithm's complexity is dominated by the sorting of edges
- *   and the union-find operations.
+ * - O(E + E * alpha(V)): the radix sort is linear, and each union-find operation is
+ *   nearly constant.
  *
  * Kruskal's Algorithm is suitable for sparse graphs with many vertices and fewer edges.
- * It's important to note that Kruskal's Algorithm may not work correctly on graphs with
- * disconnected components.
  */
 
 
-class Edge implements Comparable<Edge> {
-    int src, dest, weight;
-
-    public Edge(int src, int dest, int weight) {
-        this.src = src;
-        this.dest = dest;
-        this.weight = weight;
-    }
-
-    @Override
-    public int compareTo(Edge other) {
-        return Integer.compare(this.weight, other.weight);
-    }
-}
-
 public class Kruskal {
-    private int vertices;
-    private List<Edge> edges;
+    private final int vertices;
+    private int[] src;
+    private int[] dest;
+    private int[] weight;
+    private int edgeCount;
+
+    /**
+     * A minimum spanning forest: the accepted edges as indices into the edge list of the
+     * Kruskal instance it was computed from, in the order they were accepted.
+     */
+    public static final class Forest {
+        public final int[] edges;
+        public final long totalWeight;
+        // Connected components of the graph, 1 if the forest is a spanning tree
+        public final int components;
+
+        public Forest(int[] edges, long totalWeight, int components) {
+            this.edges = edges;
+            this.totalWeight = totalWeight;
+            this.components = components;
+        }
+    }
 
     public Kruskal(int vertices) {
+        if (vertices < 0) {
+            throw new IllegalArgumentException("vertex count must not be negative: " + vertices);
+        }
         this.vertices = vertices;
-        this.edges = new ArrayList<>();
+        this.src = new int[16];
+        this.dest = new int[16];
+        this.weight = new int[16];
     }
 
     public void addEdge(int src, int dest, int weight) {
-        edges.add(new Edge(src, dest, weight));
+        if (src < 0 || src >= vertices || dest < 0 || dest >= vertices) {
+            throw new IllegalArgumentException("edge (" + src + ", " + dest + ") is outside [0, " + vertices + ")");
+        }
+        if (edgeCount == this.src.length) {
+            int capacity = edgeCount * 2;
+            this.src = Arrays.copyOf(this.src, capacity);
+            this.dest = Arrays.copyOf(this.dest, capacity);
+            this.weight = Arrays.copyOf(this.weight, capacity);
+        }
+        this.src[edgeCount] = src;
+        this.dest[edgeCount] = dest;
+        this.weight[edgeCount] = weight;
+        edgeCount++;
+    }
+
+    /**
+     * Loads every edge of a weighted CSR graph as an undirected edge, skipping self-loops.
+     * The graph does not record whether it was built undirected, so both stored directions
+     * of an undirected edge are loaded; the second one always closes a cycle and is
+     * rejected, so the forest is the same.
+     */
+    public static Kruskal fromGraph(CsrGraph graph) {
+        if (!graph.hasWeights()) {
+            throw new IllegalArgumentException("Kruskal needs a graph with int edge weights");
+        }
+        Kruskal kruskal = new Kruskal(graph.vertexCount());
+        for (int u = 0; u < graph.vertexCount(); u++) {
+            for (int e = graph.begin(u); e < graph.end(u); e++) {
+                int v = graph.target(e);
+                if (u != v) {
+                    kruskal.addEdge(u, v, graph.weight(e));
+                }
+            }
+        }
+        return kruskal;
     }
 
-    public List<Edge> kruskalMST() {
-        List<Edge> result = new ArrayList<>();
-        Collections.sort(edges);
+    public int vertexCount() {
+        return vertices;
+    }
 
-        int[] parent = new int[vertices];
-        Arrays.fill(parent, -1);
+    public int edgeCount() {
+        return edgeCount;
+    }
 
-        for (Edge edge : edges) {
-            int rootSrc = find(parent, edge.src);
-            int rootDest = find(parent, edge.dest);
+    public int src(int edge) {
+        return src[edge];
+    }
 
-            if (rootSrc != rootDest) {
-                result.add(edge);
-                union(parent, rootSrc, rootDest);
-            }
-        }
+    public int dest(int edge) {
+        return dest[edge];
+    }
 
-        return result;
+    public int weight(int edge) {
+        return weight[edge];
     }
 
-    private int find(int[] parent, int vertex) {
-        if (parent[vertex] == -1) {
-            return vertex;
+    public Forest kruskalMST() {
+        TraversalMetrics.Run run = TraversalMetrics.ENABLED ? TraversalMetrics.start("Kruskal") : null;
+        int[] order = IndexSorting.argsort(weight, edgeCount);
+        if (TraversalMetrics.ENABLED) {
+            run.phase("sort");
+        }
+        UnionFind components = new UnionFind(vertices);
+        int[] accepted = new int[Math.max(0, vertices - 1)];
+        int count = 0;
+        long totalWeight = 0;
+
+        int i = 0;
+        for (; i < edgeCount && count < accepted.length; i++) {
+            int edge = order[i];
+            if (components.union(src[edge], dest[edge])) {
+                accepted[count++] = edge;
+                totalWeight += weight[edge];
+            }
+        }
+        if (TraversalMetrics.ENABLED) {
+            run.phase("union");
+            run.scanned(i);
+            run.unionFind(i);
+            run.settled(count);
+            TraversalMetrics.finish(run);
         }
-        return find(parent, parent[vertex]);
-    }
 
-    private void union(int[] parent, int rootSrc, int rootDest) {
-        parent[rootSrc] = rootDest;
+        return new Forest(Arrays.copyOf(accepted, count), totalWeight, components.componentCount());
     }
 
     public static void main(String[] args) {
-        Kruskal graph = new Kruskal(4);
-
-        graph.addEdge(0, 1, 10);
-        graph.addEdge(0, 2, 6);
-        graph.addEdge(0, 3, 5);
-        graph.addEdge(1, 3, 15);
-        graph.addEdge(2, 3, 4);
+        int[] sources = {0, 0, 0, 1, 2};
+        int[] destinations = {1, 2, 3, 3, 3};
+        int[] weights = {10, 6, 5, 15, 4};
+        Kruskal graph = fromGraph(CsrGraph.fromEdges(4, sources, destinations, weights, true));
 
-        List<Edge> mstEdges = graph.kruskalMST();
+        Forest mst = graph.kruskalMST();
 
         System.out.println("Minimum Spanning Tree Edges:");
-        for (Edge edge : mstEdges) {
-            System.out.println("Edge " + edge.src + " - " + edge.dest + " with weight " + edge.weight);
+        for (int edge : mst.edges) {
+            System.out.println("Edge " + graph.src(edge) + " - " + graph.dest(edge) + " with weight " + graph.weight(edge));
         }
+        System.out.println("Total weight " + mst.totalWeight + ", components " + mst.components);
     }
 }
@@ -0,0 +1,61 @@
+package graph;
+
+/**
+ * A graph read straight from a memory-mapped GraphFile. The offset, target and weight
+ * sections stay in the operating system's page cache instead of the Java heap, so
+ * opening a graph costs a few map calls however large it is, pages are loaded on first
+ * access, and several processes mapping the same file share one copy.
+ *
+ * Every accessor reads a little-endian int from a mapped segment. Instances are
+ * immutable and safe to share between threads.
+ */
+public final class MappedGraph implements Graph {
+    private final int vertices;
+    private final int edges;
+    private final MappedInts offsets;
+    private final MappedInts targets;
+    private final MappedInts weights;
+
+    MappedGraph(int vertices, int edges, MappedInts offsets, MappedInts targets, MappedInts weights) {
+        this.vertices = vertices;
+        this.edges = edges;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertices;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edges;
+    }
+
+    @Override
+    public int begin(int v) {
+        return offsets.get(v);
+    }
+
+    @Override
+    public int end(int v) {
+        return offsets.get(v + 1L);
+    }
+
+    @Override
+    public int target(int e) {
+        return targets.get(e);
+    }
+
+    @Override
+    public boolean hasWeights() {
+        return weights != null;
+    }
+
+    @Override
+    public int weight(int e) {
+        return weights.get(e);
+    }
+}
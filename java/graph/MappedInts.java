@@ -0,0 +1,55 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An int array of any length backed by a region of a file. One MappedByteBuffer can map
+ * at most 2 GB, so the region is mapped as 1 GB segments and index i lives in segment
+ * i >> SEGMENT_SHIFT. Absolute gets and puts do not touch the buffers' positions, so
+ * threads may access different indexes concurrently.
+ */
+final class MappedInts {
+    static final int SEGMENT_SHIFT = 28;
+    private static final long SEGMENT_INTS = 1L << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private final IntBuffer[] segments;
+    private final long length;
+
+    private MappedInts(IntBuffer[] segments, long length) {
+        this.segments = segments;
+        this.length = length;
+    }
+
+    /**
+     * Maps length little-endian ints starting at byte position. The mapping stays valid
+     * after the channel is closed.
+     */
+    static MappedInts map(FileChannel channel, FileChannel.MapMode mode, long position, long length)
+            throws IOException {
+        int count = (int) ((length + SEGMENT_INTS - 1) >>> SEGMENT_SHIFT);
+        IntBuffer[] segments = new IntBuffer[count];
+        for (int s = 0; s < count; s++) {
+            long ints = Math.min(SEGMENT_INTS, length - s * SEGMENT_INTS);
+            segments[s] = channel.map(mode, position + 4 * s * SEGMENT_INTS, 4 * ints)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer();
+        }
+        return new MappedInts(segments, length);
+    }
+
+    long length() {
+        return length;
+    }
+
+    int get(long i) {
+        return segments[(int) (i >>> SEGMENT_SHIFT)].get((int) i & SEGMENT_MASK);
+    }
+
+    void put(long i, int value) {
+        segments[(int) (i >>> SEGMENT_SHIFT)].put((int) i & SEGMENT_MASK, value);
+    }
+}
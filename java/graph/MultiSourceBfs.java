@@ -0,0 +1,354 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-Source BFS (MS-BFS) runs up to 64 Breadth-First Searches over the same graph at
+ * once. Every vertex carries one bit per search in a long, and a single level-by-level
+ * traversal advances all searches together, so an edge is scanned once per batch
+ * instead of once per source.
+ *
+ * How MS-BFS Works:
+ * 1. seen[v] has bit i set once search i has reached v; visit[v] holds the searches that
+ *    have v in their current frontier. Source i starts with bit i in both.
+ * 2. For every vertex v of the frontier and every neighbor n, the searches that reach n
+ *    for the first time are visit[v] & ~seen[n]. They are added to next[n] and seen[n],
+ *    and their distance to n is the current level.
+ * 3. next becomes visit and the traversal continues until no search has a frontier.
+ * Searches that share parts of the graph share the edge scans of those parts: one scan
+ * of v's edges serves all searches that reach v on the same level.
+ *
+ * Only vertices with a non-zero visit mask are kept in the frontier list, so a level
+ * costs the edges of its frontier, not a scan of all V vertices.
+ *
+ * Service batches requests from many threads: callers put sources on a queue and get a
+ * CompletableFuture, and each worker thread takes up to 64 queued sources and answers
+ * them with one MS-BFS. Under load, batches fill up and the cost per query drops.
+ *
+ * Time Complexity:
+ * - O(V + E) per batch of up to 64 sources for reachability, compared to O(64 (V + E))
+ *   for separate searches; writing distances adds O(V) per source.
+ *
+ * Space Complexity:
+ * O(V) for the three masks and the frontier lists, plus V ints per source for distances.
+ *
+ * - Then et al., "The More the Merrier: Efficient Multi-Source Graph Traversal" (2014)
+ */
+public class MultiSourceBfs {
+    public static final int BATCH_SIZE = 64;
+
+    private final Graph graph;
+    private final long[] seen;
+    private long[] visit;
+    private long[] next;
+    private int[] frontier;
+    private int[] nextFrontier;
+
+    public static void main(String[] args) throws Exception {
+        int vertices = 1 << 18;
+        int edges = 16 * vertices;
+        Random random = new Random(42);
+        int[] sources = new int[edges];
+        int[] destinations = new int[edges];
+        for (int i = 0; i < edges; i++) {
+            sources[i] = random.nextInt(vertices);
+            destinations[i] = random.nextInt(vertices);
+        }
+        CsrGraph graph = CsrGraph.fromEdges(vertices, sources, destinations, true);
+        int[] queries = new int[BATCH_SIZE];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = random.nextInt(vertices);
+        }
+
+        int[][] distances = null;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int source : queries) {
+                BreadthFirstSearch.bfs(graph, source);
+            }
+            long separate = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            distances = distances(graph, queries);
+            long batched = System.nanoTime() - start;
+
+            boolean equal = Arrays.equals(distances[0], ParallelBreadthFirstSearch.bfs(graph, queries[0]).depth);
+            System.out.println(queries.length + " separate BFS " + separate / 1_000_000 + "ms, MS-BFS "
+                    + batched / 1_000_000 + "ms, equal=" + equal);
+        }
+
+        // four clients asking for 16 sources each share batches
+        try (Service service = new Service(graph, 1)) {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            CompletableFuture<int[][]>[] results = new CompletableFuture[4];
+            Thread[] clients = new Thread[4];
+            for (int c = 0; c < 4; c++) {
+                int client = c;
+                int[] batch = Arrays.copyOfRange(queries, 16 * c, 16 * c + 16);
+                clients[c] = new Thread(() -> results[client] = service.distances(batch));
+                clients[c].start();
+            }
+            for (Thread client : clients) {
+                client.join();
+            }
+            boolean equal = true;
+            for (int c = 0; c < 4; c++) {
+                int[][] answer = results[c].get();
+                for (int i = 0; i < answer.length; i++) {
+                    equal &= Arrays.equals(answer[i], distances[16 * c + i]);
+                }
+            }
+            System.out.println("Service answered 64 queries in " + service.batchCount() + " batches, equal=" + equal);
+        }
+    }
+
+    private MultiSourceBfs(Graph graph) {
+        int n = graph.vertexCount();
+        this.graph = graph;
+        this.seen = new long[n];
+        this.visit = new long[n];
+        this.next = new long[n];
+        this.frontier = new int[n];
+        this.nextFrontier = new int[n];
+    }
+
+    /**
+     * Returns one mask per vertex with bit i set if the vertex is reachable from
+     * sources[i]. At most 64 sources.
+     */
+    public static long[] reachability(Graph graph, int[] sources) {
+        if (sources.length > BATCH_SIZE) {
+            throw new IllegalArgumentException("at most " + BATCH_SIZE + " sources per mask, got " + sources.length);
+        }
+        MultiSourceBfs search = new MultiSourceBfs(graph);
+        search.run(sources, 0, sources.length, null);
+        return search.seen;
+    }
+
+    /**
+     * Returns the number of edges from sources[i] to every vertex in distances[i], -1 when
+     * unreachable. Any number of sources, run in batches of 64.
+     */
+    public static int[][] distances(Graph graph, int[] sources) {
+        MultiSourceBfs search = new MultiSourceBfs(graph);
+        int[][] distances = new int[sources.length][];
+        for (int offset = 0; offset < sources.length; offset += BATCH_SIZE) {
+            int count = Math.min(BATCH_SIZE, sources.length - offset);
+            for (int i = offset; i < offset + count; i++) {
+                distances[i] = unreached(graph.vertexCount());
+            }
+            search.run(sources, offset, count, distances);
+        }
+        return distances;
+    }
+
+    private static int[] unreached(int n) {
+        int[] distance = new int[n];
+        Arrays.fill(distance, -1);
+        return distance;
+    }
+
+    // Searches from sources[offset .. offset + count) and fills the matching distances
+    // rows if distances is not null
+    private void run(int[] sources, int offset, int count, int[][] distances) {
+        int n = graph.vertexCount();
+        Arrays.fill(seen, 0);
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int source = sources[offset + i];
+            if (source < 0 || source >= n) {
+                throw new IllegalArgumentException("source " + source + " is outside [0, " + n + ")");
+            }
+            if (visit[source] == 0) {
+                frontier[size++] = source;
+            }
+            visit[source] |= 1L << i;
+            seen[source] |= 1L << i;
+            if (distances != null) {
+                distances[offset + i][source] = 0;
+            }
+        }
+
+        int level = 0;
+        while (size > 0) {
+            level++;
+            int nextSize = 0;
+            for (int i = 0; i < size; i++) {
+                int v = frontier[i];
+                long searches = visit[v];
+                // visit becomes the next "next", so it is cleared as the frontier is consumed
+                visit[v] = 0;
+                for (int e = graph.begin(v); e < graph.end(v); e++) {
+                    int w = graph.target(e);
+                    long reached = searches & ~seen[w];
+                    if (reached == 0) {
+                        continue;
+                    }
+                    if (next[w] == 0) {
+                        nextFrontier[nextSize++] = w;
+                    }
+                    next[w] |= reached;
+                    seen[w] |= reached;
+                    if (distances != null) {
+                        for (long bits = reached; bits != 0; bits &= bits - 1) {
+                            distances[offset + Long.numberOfTrailingZeros(bits)][w] = level;
+                        }
+                    }
+                }
+            }
+            long[] masks = visit;
+            visit = next;
+            next = masks;
+            int[] list = frontier;
+            frontier = nextFrontier;
+            nextFrontier = list;
+            size = nextSize;
+        }
+    }
+
+    /**
+     * Answers single-source distance queries from concurrent callers by merging queued
+     * requests into MS-BFS batches of up to 64 sources. Each worker thread owns one set of
+     * MS-BFS arrays, which it reuses for every batch.
+     */
+    public static final class Service implements AutoCloseable {
+        private final Graph graph;
+        private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+        private final Thread[] workers;
+        private final AtomicLong batches = new AtomicLong();
+        private volatile boolean closed;
+
+        public Service(Graph graph, int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("thread count must be positive: " + threads);
+            }
+            this.graph = graph;
+            this.workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(this::work, "ms-bfs-" + t);
+                workers[t].setDaemon(true);
+                workers[t].start();
+            }
+        }
+
+        /**
+         * Distances from source to every vertex, -1 when unreachable.
+         */
+        public CompletableFuture<int[]> distances(int source) {
+            int n = graph.vertexCount();
+            if (source < 0 || source >= n) {
+                throw new IllegalArgumentException("source " + source + " is outside [0, " + n + ")");
+            }
+            if (closed) {
+                throw new IllegalStateException("service is closed");
+            }
+            Request request = new Request(source);
+            queue.add(request);
+            // close may have drained the queue before the add
+            if (closed && queue.remove(request)) {
+                request.future.completeExceptionally(new IllegalStateException("service is closed"));
+            }
+            return request.future;
+        }
+
+        /**
+         * Distances from every source, completed once all of them are answered. The sources
+         * may be spread over several batches, together with other callers' sources.
+         */
+        public CompletableFuture<int[][]> distances(int[] sources) {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            CompletableFuture<int[]>[] futures = new CompletableFuture[sources.length];
+            for (int i = 0; i < sources.length; i++) {
+                futures[i] = distances(sources[i]);
+            }
+            return CompletableFuture.allOf(futures).thenApply(done -> {
+                int[][] distances = new int[futures.length][];
+                for (int i = 0; i < futures.length; i++) {
+                    distances[i] = futures[i].join();
+                }
+                return distances;
+            });
+        }
+
+        public long batchCount() {
+            return batches.get();
+        }
+
+        /**
+         * Stops the workers. Batches already running are completed; queued requests fail.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+            for (Thread worker : workers) {
+                boolean interrupted = false;
+                while (worker.isAlive()) {
+                    try {
+                        worker.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (Request request = queue.poll(); request != null; request = queue.poll()) {
+                request.future.completeExceptionally(new IllegalStateException("service is closed"));
+            }
+        }
+
+        private void work() {
+            MultiSourceBfs search = new MultiSourceBfs(graph);
+            List<Request> batch = new ArrayList<>(BATCH_SIZE);
+            int[] sources = new int[BATCH_SIZE];
+            int[][] distances = new int[BATCH_SIZE][];
+            while (!closed) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    return;
+                }
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                int count = batch.size();
+                for (int i = 0; i < count; i++) {
+                    sources[i] = batch.get(i).source;
+                    distances[i] = unreached(graph.vertexCount());
+                }
+                try {
+                    search.run(sources, 0, count, distances);
+                    batches.incrementAndGet();
+                    for (int i = 0; i < count; i++) {
+                        batch.get(i).future.complete(distances[i]);
+                    }
+                } catch (RuntimeException | Error e) {
+                    for (Request request : batch) {
+                        request.future.completeExceptionally(e);
+                    }
+                    // the masks may be left half-cleared
+                    search = new MultiSourceBfs(graph);
+                }
+                Arrays.fill(distances, null);
+                batch.clear();
+            }
+        }
+
+        private static final class Request {
+            final int source;
+            final CompletableFuture<int[]> future = new CompletableFuture<>();
+
+            Request(int source) {
+                this.source = source;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits the index range [from, to) into chunks of at most grain indices and runs the
+ * body on every chunk in a ForkJoinPool. The parallel graph algorithms use it for their
+ * per-level and per-round loops, so each of them only has to say what one chunk does.
+ */
+public final class ParallelFor extends RecursiveAction {
+    public interface Body {
+        void apply(int from, int to);
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private final int from, to, grain;
+    private final Body body;
+
+    private ParallelFor(int from, int to, int grain, Body body) {
+        this.from = from;
+        this.to = to;
+        this.grain = grain;
+        this.body = body;
+    }
+
+    public static void run(ForkJoinPool pool, int from, int to, int grain, Body body) {
+        if (to - from <= grain) {
+            body.apply(from, to);
+        } else {
+            pool.invoke(new ParallelFor(from, to, Math.max(1, grain), body));
+        }
+    }
+
+    /**
+     * A grain that gives every worker a few chunks, so uneven chunks still balance out.
+     */
+    public static int grain(int size, ForkJoinPool pool, int minimum) {
+        return Math.max(minimum, size / (pool.getParallelism() * 8));
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= grain) {
+            body.apply(from, to);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        invokeAll(new ParallelFor(from, mid, grain, body), new ParallelFor(mid, to, grain, body));
+    }
+}
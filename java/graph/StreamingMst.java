@@ -0,0 +1,337 @@
+package graph;
+
+import sorting.IndexSorting;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Streaming MST keeps the connected components and a Minimum Spanning Forest of an
+ * undirected graph up to date while edges are inserted, without recomputing anything
+ * from scratch.
+ *
+ * How Streaming MST Works:
+ * 1. Components: a UnionFind over the vertices answers connected(u, v) at any time.
+ * 2. A new edge (u, v, w) between two different components joins them: it is added to
+ *    both the UnionFind and the forest.
+ * 3. Otherwise the edge closes a cycle with the forest. By the cycle property the
+ *    heaviest edge on that cycle is not in the MST, so if the heaviest edge of the forest
+ *    path u .. v is heavier than w, it is cut and the new edge is linked in its place;
+ *    otherwise the new edge is discarded.
+ * 4. Batches are applied in increasing weight order, which is Kruskal's order, so most
+ *    edges of a batch that do not belong in the forest are rejected without a swap.
+ *
+ * The forest is a link-cut tree, which supports link, cut and "maximum on a path" in
+ * O(log n) amortized time. Edges become nodes of their own between their endpoints, so a
+ * path maximum over nodes is a maximum over edges. All nodes live in parallel int and
+ * long arrays (children, parent, reversal flag, subtree maximum) indexed by node id:
+ * vertices are nodes 0 .. V - 1 and the at most V - 1 forest edges reuse the slots
+ * V .. 2V - 2 through a free list, so inserting edges never allocates.
+ *
+ * Time Complexity:
+ * - addEdge: O(log V) amortized.
+ * - connected: O(alpha(V)) amortized; mstWeight, componentCount: O(1).
+ * - maxWeightOnPath: O(log V) amortized.
+ *
+ * Space Complexity:
+ * O(V): the forest never holds more than V - 1 edges, however many are inserted.
+ *
+ * - Sleator and Tarjan, "A Data Structure for Dynamic Trees" (1983)
+ */
+public class StreamingMst {
+    private static final int NIL = -1;
+
+    private final int vertices;
+    private final UnionFind components;
+    // link-cut tree over vertex nodes and edge nodes
+    private final int[] left;
+    private final int[] right;
+    private final int[] parent;
+    private final boolean[] reversed;
+    private final int[] maxNode;
+    private final long[] weight;
+    private final int[] splayStack;
+    // endpoints of edge nodes, indexed by node - vertices
+    private final int[] edgeU;
+    private final int[] edgeV;
+    private final int[] freeEdges;
+    private int freeCount;
+    private long mstWeight;
+    private int treeEdges;
+
+    public static void main(String[] args) {
+        int vertices = 100_000;
+        int batches = 200;
+        int batchSize = 2_000;
+        Random random = new Random(42);
+        StreamingMst stream = new StreamingMst(vertices);
+        Kruskal all = new Kruskal(vertices);
+
+        for (int b = 0; b < batches; b++) {
+            int[] sources = new int[batchSize];
+            int[] destinations = new int[batchSize];
+            int[] weights = new int[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                sources[i] = random.nextInt(vertices);
+                destinations[i] = random.nextInt(vertices);
+                weights[i] = random.nextInt(1_000_000);
+                all.addEdge(sources[i], destinations[i], weights[i]);
+            }
+
+            long start = System.nanoTime();
+            stream.addEdges(sources, destinations, weights);
+            long incremental = System.nanoTime() - start;
+            if (b % 40 != 39) {
+                continue;
+            }
+
+            start = System.nanoTime();
+            Kruskal.Forest rebuilt = all.kruskalMST();
+            long scratch = System.nanoTime() - start;
+
+            System.out.println("batch " + b + ": streaming " + incremental / 1_000 + "us, from scratch "
+                    + scratch / 1_000_000 + "ms, weight " + stream.mstWeight() + " / " + rebuilt.totalWeight
+                    + ", components " + stream.componentCount());
+        }
+    }
+
+    public StreamingMst(int vertices) {
+        if (vertices < 0) {
+            throw new IllegalArgumentException("vertex count must not be negative: " + vertices);
+        }
+        this.vertices = vertices;
+        this.components = new UnionFind(vertices);
+        int edgeSlots = Math.max(0, vertices - 1);
+        int nodes = vertices + edgeSlots;
+        left = new int[nodes];
+        right = new int[nodes];
+        parent = new int[nodes];
+        reversed = new boolean[nodes];
+        maxNode = new int[nodes];
+        weight = new long[nodes];
+        splayStack = new int[nodes];
+        Arrays.fill(left, NIL);
+        Arrays.fill(right, NIL);
+        Arrays.fill(parent, NIL);
+        for (int x = 0; x < nodes; x++) {
+            maxNode[x] = x;
+            // vertices never win a path maximum
+            weight[x] = Long.MIN_VALUE;
+        }
+        edgeU = new int[edgeSlots];
+        edgeV = new int[edgeSlots];
+        freeEdges = new int[edgeSlots];
+        for (int i = 0; i < edgeSlots; i++) {
+            freeEdges[freeCount++] = nodes - 1 - i;
+        }
+    }
+
+    /**
+     * Inserts a batch of edges, lightest first.
+     */
+    public void addEdges(int[] sources, int[] destinations, int[] weights) {
+        if (sources.length != destinations.length || sources.length != weights.length) {
+            throw new IllegalArgumentException("edge arrays differ in length: " + sources.length + ", "
+                    + destinations.length + ", " + weights.length);
+        }
+        for (int i : IndexSorting.argsort(weights)) {
+            addEdge(sources[i], destinations[i], weights[i]);
+        }
+    }
+
+    /**
+     * Inserts one edge. Returns true if it became part of the spanning forest.
+     */
+    public boolean addEdge(int u, int v, int w) {
+        if (u < 0 || u >= vertices || v < 0 || v >= vertices) {
+            throw new IllegalArgumentException("edge (" + u + ", " + v + ") is outside [0, " + vertices + ")");
+        }
+        if (u == v) {
+            return false;
+        }
+        if (components.union(u, v)) {
+            linkEdge(u, v, w);
+            return true;
+        }
+
+        int heaviest = pathMax(u, v);
+        if (weight[heaviest] <= w) {
+            return false;
+        }
+        int slot = heaviest - vertices;
+        cut(edgeU[slot], heaviest);
+        cut(heaviest, edgeV[slot]);
+        mstWeight -= weight[heaviest];
+        treeEdges--;
+        weight[heaviest] = Long.MIN_VALUE;
+        maxNode[heaviest] = heaviest;
+        freeEdges[freeCount++] = heaviest;
+        linkEdge(u, v, w);
+        return true;
+    }
+
+    public boolean connected(int u, int v) {
+        return components.connected(u, v);
+    }
+
+    public long mstWeight() {
+        return mstWeight;
+    }
+
+    public int componentCount() {
+        return components.componentCount();
+    }
+
+    public int treeEdgeCount() {
+        return treeEdges;
+    }
+
+    /**
+     * Weight of the heaviest forest edge between u and v, which is the bottleneck of the
+     * best u - v path in the graph.
+     *
+     * @throws IllegalArgumentException if u and v are not connected
+     */
+    public long maxWeightOnPath(int u, int v) {
+        if (!components.connected(u, v)) {
+            throw new IllegalArgumentException(u + " and " + v + " are not connected");
+        }
+        return u == v ? 0 : weight[pathMax(u, v)];
+    }
+
+    private void linkEdge(int u, int v, int w) {
+        int x = freeEdges[--freeCount];
+        edgeU[x - vertices] = u;
+        edgeV[x - vertices] = v;
+        weight[x] = w;
+        maxNode[x] = x;
+        link(u, x);
+        link(x, v);
+        mstWeight += w;
+        treeEdges++;
+    }
+
+    // Node of maximum weight on the forest path u .. v
+    private int pathMax(int u, int v) {
+        makeRoot(u);
+        access(v);
+        return maxNode[v];
+    }
+
+    private boolean isSplayRoot(int x) {
+        int p = parent[x];
+        return p == NIL || (left[p] != x && right[p] != x);
+    }
+
+    private void update(int x) {
+        int best = x;
+        int l = left[x];
+        int r = right[x];
+        if (l != NIL && weight[maxNode[l]] > weight[best]) {
+            best = maxNode[l];
+        }
+        if (r != NIL && weight[maxNode[r]] > weight[best]) {
+            best = maxNode[r];
+        }
+        maxNode[x] = best;
+    }
+
+    private void flip(int x) {
+        if (x != NIL) {
+            int tmp = left[x];
+            left[x] = right[x];
+            right[x] = tmp;
+            reversed[x] = !reversed[x];
+        }
+    }
+
+    private void pushDown(int x) {
+        if (reversed[x]) {
+            flip(left[x]);
+            flip(right[x]);
+            reversed[x] = false;
+        }
+    }
+
+    private void rotate(int x) {
+        int y = parent[x];
+        int z = parent[y];
+        if (!isSplayRoot(y)) {
+            if (left[z] == y) {
+                left[z] = x;
+            } else {
+                right[z] = x;
+            }
+        }
+        parent[x] = z;
+        if (left[y] == x) {
+            left[y] = right[x];
+            if (right[x] != NIL) {
+                parent[right[x]] = y;
+            }
+            right[x] = y;
+        } else {
+            right[y] = left[x];
+            if (left[x] != NIL) {
+                parent[left[x]] = y;
+            }
+            left[x] = y;
+        }
+        parent[y] = x;
+        update(y);
+        update(x);
+    }
+
+    private void splay(int x) {
+        // pending reversals must be pushed down from the splay root before rotating
+        int size = 0;
+        splayStack[size++] = x;
+        for (int y = x; !isSplayRoot(y); y = parent[y]) {
+            splayStack[size++] = parent[y];
+        }
+        while (size > 0) {
+            pushDown(splayStack[--size]);
+        }
+
+        while (!isSplayRoot(x)) {
+            int y = parent[x];
+            if (!isSplayRoot(y)) {
+                int z = parent[y];
+                rotate((left[y] == x) == (left[z] == y) ? y : x);
+            }
+            rotate(x);
+        }
+    }
+
+    // Makes the path from the tree root to x one preferred path with x at its splay root
+    private void access(int x) {
+        int last = NIL;
+        for (int y = x; y != NIL; y = parent[y]) {
+            splay(y);
+            right[y] = last;
+            update(y);
+            last = y;
+        }
+        splay(x);
+    }
+
+    private void makeRoot(int x) {
+        access(x);
+        flip(x);
+    }
+
+    private void link(int x, int y) {
+        makeRoot(x);
+        parent[x] = y;
+    }
+
+    // Removes the tree edge between the adjacent nodes x and y
+    private void cut(int x, int y) {
+        makeRoot(x);
+        access(y);
+        // y is the splay root and x, the tree root, is its only left descendant
+        left[y] = NIL;
+        parent[x] = NIL;
+        update(y);
+    }
+}
@@ -0,0 +1,359 @@
+package graph;
+
+import graph.dijkstra.Dijkstra;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Per-run counters for the traversals of this package, for finding out why a run was
+ * slow: how many vertices it settled, edges it scanned and relaxed, heap operations,
+ * union-find operations, frontier sizes per level and time per phase.
+ *
+ * Instrumentation is off unless the JVM starts with -Dgraph.metrics=true. ENABLED is a
+ * static final constant, so the JIT removes every "if (TraversalMetrics.ENABLED)" block
+ * and a disabled build runs the same machine code as one without instrumentation.
+ * Algorithms count into local variables inside their loops and hand the totals to their
+ * Run once at the end, so even when enabled the hot loops only add to registers.
+ *
+ * Completed runs are published two ways:
+ * - Listeners registered with addListener receive every Run, on the thread that ran it.
+ *   An exception thrown by a listener goes to that thread's uncaught-exception handler
+ *   and does not affect the algorithm or the other listeners.
+ * - The MXBean "graph:type=TraversalMetrics", registered on the platform MBean server
+ *   when the first run completes, sums the counters of all runs and shows the last one,
+ *   for jconsole, VisualVM or any JMX agent.
+ *
+ * Usage inside an algorithm:
+ *   TraversalMetrics.Run run = TraversalMetrics.ENABLED ? TraversalMetrics.start("bfs") : null;
+ *   ...
+ *   if (TraversalMetrics.ENABLED) {
+ *       run.scanned(edges);
+ *       TraversalMetrics.finish(run);
+ *   }
+ */
+public final class TraversalMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("graph.metrics");
+    private static final String OBJECT_NAME = "graph:type=TraversalMetrics";
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static final Totals totals = new Totals();
+
+    private TraversalMetrics() {
+    }
+
+    public static void main(String[] args) {
+        if (!ENABLED) {
+            System.out.println("Run with -Dgraph.metrics=true to collect metrics");
+            return;
+        }
+        addListener(run -> System.out.println(run));
+        int[] sources = {0, 0, 1, 1, 2, 3, 4};
+        int[] destinations = {1, 2, 2, 3, 4, 4, 5};
+        int[] weights = {7, 9, 10, 15, 11, 6, 9};
+        CsrGraph graph = CsrGraph.fromEdges(6, sources, destinations, weights, true);
+        BreadthFirstSearch.bfs(graph, 0);
+        DepthFirstSearch.connectedComponents(graph);
+        Dijkstra.shortestPaths(graph, 0);
+        Kruskal.fromGraph(graph).kruskalMST();
+        System.out.println("MXBean " + OBJECT_NAME + ": " + totals.getRuns() + " runs, "
+                + totals.getEdgesScanned() + " edges scanned");
+    }
+
+    /**
+     * Receives every completed Run.
+     */
+    public interface Listener {
+        void runCompleted(Run run);
+    }
+
+    /**
+     * The JMX view: totals over all runs since the JVM started, and the last run.
+     */
+    public interface MXBean {
+        long getRuns();
+
+        long getVerticesSettled();
+
+        long getEdgesScanned();
+
+        long getEdgesRelaxed();
+
+        long getHeapPushes();
+
+        long getHeapPops();
+
+        long getUnionFindOperations();
+
+        long getElapsedNanos();
+
+        String getLastRun();
+    }
+
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts the clock of a new run. Only call this when ENABLED is true.
+     */
+    public static Run start(String algorithm) {
+        return new Run(algorithm);
+    }
+
+    /**
+     * Stops the clock of run and publishes it to the listeners and the MXBean.
+     */
+    public static void finish(Run run) {
+        run.finish();
+        totals.add(run);
+        for (Listener listener : listeners) {
+            try {
+                listener.runCompleted(run);
+            } catch (RuntimeException e) {
+                // A broken listener must neither fail the traversal nor starve the others
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    /**
+     * The counters of one run of one algorithm. A Run belongs to the thread executing the
+     * algorithm until it is finished, and must not be changed afterwards.
+     */
+    public static final class Run {
+        private final String algorithm;
+        private final long startNanos;
+        private long elapsedNanos;
+        private long verticesSettled;
+        private long edgesScanned;
+        private long edgesRelaxed;
+        private long heapPushes;
+        private long heapPops;
+        private long unionFindOperations;
+        private int[] frontierSizes = new int[0];
+        private int levels;
+        private String[] phaseNames = new String[0];
+        private long[] phaseNanos = new long[0];
+        private int phases;
+        private long phaseStart;
+
+        private Run(String algorithm) {
+            this.algorithm = algorithm;
+            this.startNanos = System.nanoTime();
+            this.phaseStart = startNanos;
+        }
+
+        public void settled(long vertices) {
+            verticesSettled += vertices;
+        }
+
+        public void scanned(long edges) {
+            edgesScanned += edges;
+        }
+
+        public void relaxed(long edges) {
+            edgesRelaxed += edges;
+        }
+
+        public void pushed(long items) {
+            heapPushes += items;
+        }
+
+        public void popped(long items) {
+            heapPops += items;
+        }
+
+        public void unionFind(long operations) {
+            unionFindOperations += operations;
+        }
+
+        // Records the size of the next BFS level
+        public void frontier(int size) {
+            if (levels == frontierSizes.length) {
+                frontierSizes = Arrays.copyOf(frontierSizes, Math.max(16, 2 * levels));
+            }
+            frontierSizes[levels++] = size;
+        }
+
+        /**
+         * Ends the current phase under the given name and starts the next one. The time
+         * after the last call is not attributed to any phase.
+         */
+        public void phase(String name) {
+            long now = System.nanoTime();
+            if (phases == phaseNames.length) {
+                phaseNames = Arrays.copyOf(phaseNames, Math.max(4, 2 * phases));
+                phaseNanos = Arrays.copyOf(phaseNanos, Math.max(4, 2 * phases));
+            }
+            phaseNames[phases] = name;
+            phaseNanos[phases++] = now - phaseStart;
+            phaseStart = now;
+        }
+
+        private void finish() {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+
+        public String algorithm() {
+            return algorithm;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long verticesSettled() {
+            return verticesSettled;
+        }
+
+        public long edgesScanned() {
+            return edgesScanned;
+        }
+
+        public long edgesRelaxed() {
+            return edgesRelaxed;
+        }
+
+        public long heapPushes() {
+            return heapPushes;
+        }
+
+        public long heapPops() {
+            return heapPops;
+        }
+
+        public long unionFindOperations() {
+            return unionFindOperations;
+        }
+
+        public int[] frontierSizes() {
+            return Arrays.copyOf(frontierSizes, levels);
+        }
+
+        public String[] phaseNames() {
+            return Arrays.copyOf(phaseNames, phases);
+        }
+
+        public long[] phaseNanos() {
+            return Arrays.copyOf(phaseNanos, phases);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(algorithm).append(": ")
+                    .append(elapsedNanos / 1_000).append("us, settled ").append(verticesSettled)
+                    .append(", scanned ").append(edgesScanned)
+                    .append(", relaxed ").append(edgesRelaxed)
+                    .append(", pushes ").append(heapPushes)
+                    .append(", pops ").append(heapPops)
+                    .append(", union-find ").append(unionFindOperations);
+            if (levels > 0) {
+                text.append(", frontiers ").append(Arrays.toString(frontierSizes()));
+            }
+            for (int p = 0; p < phases; p++) {
+                text.append(", ").append(phaseNames[p]).append(' ').append(phaseNanos[p] / 1_000).append("us");
+            }
+            return text.toString();
+        }
+    }
+
+    private static final class Totals implements MXBean {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder verticesSettled = new LongAdder();
+        private final LongAdder edgesScanned = new LongAdder();
+        private final LongAdder edgesRelaxed = new LongAdder();
+        private final LongAdder heapPushes = new LongAdder();
+        private final LongAdder heapPops = new LongAdder();
+        private final LongAdder unionFindOperations = new LongAdder();
+        private final LongAdder elapsedNanos = new LongAdder();
+        private final AtomicReference<Run> lastRun = new AtomicReference<>();
+        private volatile boolean registered;
+
+        void add(Run run) {
+            if (!registered) {
+                register();
+            }
+            runs.increment();
+            verticesSettled.add(run.verticesSettled);
+            edgesScanned.add(run.edgesScanned);
+            edgesRelaxed.add(run.edgesRelaxed);
+            heapPushes.add(run.heapPushes);
+            heapPops.add(run.heapPops);
+            unionFindOperations.add(run.unionFindOperations);
+            elapsedNanos.add(run.elapsedNanos);
+            lastRun.set(run);
+        }
+
+        private synchronized void register() {
+            if (registered) {
+                return;
+            }
+            registered = true;
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(new StandardMBean(this, MXBean.class, true), new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                // another class loader registered the name first; metrics stay available to listeners
+            }
+        }
+
+        @Override
+        public long getRuns() {
+            return runs.sum();
+        }
+
+        @Override
+        public long getVerticesSettled() {
+            return verticesSettled.sum();
+        }
+
+        @Override
+        public long getEdgesScanned() {
+            return edgesScanned.sum();
+        }
+
+        @Override
+        public long getEdgesRelaxed() {
+            return edgesRelaxed.sum();
+        }
+
+        @Override
+        public long getHeapPushes() {
+            return heapPushes.sum();
+        }
+
+        @Override
+        public long getHeapPops() {
+            return heapPops.sum();
+        }
+
+        @Override
+        public long getUnionFindOperations() {
+            return unionFindOperations.sum();
+        }
+
+        @Override
+        public long getElapsedNanos() {
+            return elapsedNanos.sum();
+        }
+
+        @Override
+        public String getLastRun() {
+            Run run = lastRun.get();
+            return run == null ? "" : run.toString();
+        }
+    }
+}
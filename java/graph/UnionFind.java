@@ -0,0 +1,98 @@
+package graph;
+
+/**
+ * Union-Find (Disjoint Set Union) keeps track of a partition of the elements 0 .. n - 1
+ * into disjoint sets and supports merging two sets and asking which set an element is
+ * in. Kruskal's Algorithm uses it to tell whether an edge would close a cycle.
+ *
+ * How Union-Find Works:
+ * 1. Every set is a tree stored in a parent array; the root represents the set and is
+ *    its own parent. Initially every element is a set of its own.
+ * 2. find(x): Walk from x to the root. On the way every visited element is pointed to
+ *    its grandparent (path halving), which halves the length of the path for all later
+ *    finds. The walk is a loop, so long chains cannot overflow the stack.
+ * 3. union(a, b): Find both roots and attach the root of the smaller tree below the root
+ *    of the larger one (union by size), so no tree grows deeper than log2(n).
+ *
+ * Time Complexity:
+ * - find, union, connected: O(alpha(n)) amortized, where alpha is the inverse Ackermann
+ *   function, which is at most 4 for any n that fits in memory.
+ *
+ * Space Complexity:
+ * O(n): two int arrays.
+ *
+ * - Tarjan and van Leeuwen, "Worst-case analysis of set union algorithms" (1984)
+ */
+public class UnionFind {
+    private final int[] parent;
+    private final int[] size;
+    private int components;
+
+    public static void main(String[] args) {
+        UnionFind sets = new UnionFind(6);
+        sets.union(0, 1);
+        sets.union(2, 3);
+        sets.union(1, 3);
+        System.out.println("0 and 2 connected: " + sets.connected(0, 2));
+        System.out.println("0 and 4 connected: " + sets.connected(0, 4));
+        System.out.println("Components: " + sets.componentCount() + ", size of 0's set: " + sets.size(0));
+    }
+
+    public UnionFind(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("element count must not be negative: " + n);
+        }
+        parent = new int[n];
+        size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        components = n;
+    }
+
+    public int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Merges the sets of a and b. Returns false if they were already the same set.
+     */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (size[rootA] < size[rootB]) {
+            int tmp = rootA;
+            rootA = rootB;
+            rootB = tmp;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        components--;
+        return true;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    // Number of elements in the set containing x
+    public int size(int x) {
+        return size[find(x)];
+    }
+
+    public int componentCount() {
+        return components;
+    }
+
+    public int elementCount() {
+        return parent.length;
+    }
+}
@@ -0,0 +1,282 @@
+package graph.dijkstra;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.ParallelFor;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Delta-Stepping is a parallel single-source shortest path algorithm. Dijkstra settles
+ * one vertex at a time in distance order; Delta-Stepping settles a whole band of
+ * distances at once and relaxes the edges of every vertex in the band in parallel.
+ *
+ * How Delta-Stepping Works:
+ * 1. Vertices wait in buckets by tentative distance: bucket i holds the vertices with
+ *    distance in [i * delta, (i + 1) * delta). Edges are light (weight <= delta) or
+ *    heavy (weight > delta).
+ * 2. Take the smallest non-empty bucket. Relax the light edges of all its vertices in
+ *    parallel; a light edge can put its target back into the same bucket, so repeat
+ *    until the bucket stays empty. Every vertex removed from the bucket is remembered.
+ * 3. Relax the heavy edges of all remembered vertices in parallel, once. Their targets
+ *    always land in later buckets, so this never has to be repeated.
+ * 4. Continue with the next non-empty bucket until all buckets are empty.
+ *
+ * Relaxations lower distances with compare-and-set, so parallel relaxations of the same
+ * vertex keep the minimum. Each task collects the vertices it improved in a local buffer,
+ * and the buffers are put into buckets after the phase, so buckets need no locking. A
+ * vertex may sit in several buckets; entries whose distance has moved to another bucket
+ * are skipped. Because every vertex ends with the minimum over all paths, the distances
+ * are exactly those of Dijkstra. Predecessors are derived from the final distances with
+ * one pass over tight edges (dist[u] + w == dist[v]) from the source, which always
+ * yields a valid shortest path tree.
+ *
+ * Choosing delta: delta = 1 degenerates into Dial's bucket version of Dijkstra with
+ * little parallelism per bucket; delta = infinity is Bellman-Ford with a lot of wasted
+ * work. autoDelta uses maxWeight / averageDegree, the choice suggested by Meyer and
+ * Sanders for random graphs, so a bucket holds a few edges per vertex of work.
+ *
+ * Time Complexity:
+ * - O(V + E + L * maxWeight / delta) work on random graphs with random weights, where L
+ *   is the largest shortest path weight, and far fewer sequential steps than Dijkstra.
+ *
+ * Space Complexity:
+ * O(V + E) for distances, buckets and relaxation buffers.
+ *
+ * - Meyer and Sanders, "Delta-stepping: a parallelizable shortest path algorithm" (2003)
+ */
+public class DeltaStepping {
+    private static final int MIN_VERTICES_PER_TASK = 64;
+    private static final long MAX_BUCKETS = 1 << 24;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        int vertices = 1 << 20;
+        int edges = 8 * vertices;
+        int[] sources = new int[edges];
+        int[] destinations = new int[edges];
+        int[] weights = new int[edges];
+        for (int i = 0; i < edges; i++) {
+            sources[i] = random.nextInt(vertices);
+            destinations[i] = random.nextInt(vertices);
+            weights[i] = 1 + random.nextInt(1000);
+        }
+        CsrGraph graph = CsrGraph.fromEdges(vertices, sources, destinations, weights, false);
+        System.out.println("delta=" + autoDelta(graph));
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            Dijkstra.ShortestPaths expected = Dijkstra.shortestPaths(graph, 0);
+            long sequential = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Dijkstra.ShortestPaths actual = shortestPaths(graph, 0);
+            long parallel = System.nanoTime() - start;
+
+            System.out.println("Dijkstra " + sequential / 1_000_000 + "ms, delta-stepping "
+                    + parallel / 1_000_000 + "ms, equal=" + Arrays.equals(expected.distances(), actual.distances()));
+        }
+    }
+
+    /**
+     * Runs on the common pool with autoDelta.
+     */
+    public static Dijkstra.ShortestPaths shortestPaths(Graph graph, int source) {
+        return shortestPaths(graph, source, autoDelta(graph), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * maxWeight / averageDegree, at least 1.
+     */
+    public static long autoDelta(Graph graph) {
+        checkWeights(graph);
+        int maxWeight = 0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            maxWeight = Math.max(maxWeight, graph.weight(e));
+        }
+        if (graph.edgeCount() == 0) {
+            return 1;
+        }
+        return Math.max(1, (long) maxWeight * graph.vertexCount() / graph.edgeCount());
+    }
+
+    public static Dijkstra.ShortestPaths shortestPaths(Graph graph, int source, long delta, ForkJoinPool pool) {
+        checkWeights(graph);
+        if (delta < 1) {
+            throw new IllegalArgumentException("delta must be positive: " + delta);
+        }
+        int n = graph.vertexCount();
+        int maxWeight = 0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            int w = graph.weight(e);
+            if (w < 0) {
+                throw new IllegalArgumentException("negative weight " + w + " on edge " + e);
+            }
+            maxWeight = Math.max(maxWeight, w);
+        }
+        // new entries are at most maxWeight / delta + 1 buckets ahead, so the buckets can be cyclic
+        long bucketCount = maxWeight / delta + 2;
+        if (bucketCount > MAX_BUCKETS) {
+            throw new IllegalArgumentException("delta " + delta + " is too small for the largest weight " + maxWeight);
+        }
+
+        AtomicLongArray dist = new AtomicLongArray(n);
+        for (int v = 0; v < n; v++) {
+            dist.set(v, Dijkstra.UNREACHABLE);
+        }
+        IntList[] buckets = new IntList[(int) bucketCount];
+        for (int b = 0; b < buckets.length; b++) {
+            buckets[b] = new IntList();
+        }
+        // stamps remove duplicate entries: taken for one light phase, settled for one bucket
+        int[] taken = new int[n];
+        int[] settled = new int[n];
+        int phase = 0;
+        int bucketRound = 0;
+        ConcurrentLinkedQueue<IntList> improved = new ConcurrentLinkedQueue<>();
+
+        dist.set(source, 0);
+        buckets[0].add(source);
+        long queued = 1;
+        long current = 0;
+        IntList frontier = new IntList();
+        IntList removed = new IntList();
+
+        while (queued > 0) {
+            // find the next non-empty bucket; all entries lie less than bucketCount ahead
+            while (buckets[(int) (current % bucketCount)].size == 0) {
+                current++;
+            }
+            IntList bucket = buckets[(int) (current % bucketCount)];
+            bucketRound++;
+            removed.size = 0;
+
+            while (bucket.size > 0) {
+                phase++;
+                queued -= bucket.size;
+                frontier.size = 0;
+                for (int i = 0; i < bucket.size; i++) {
+                    int v = bucket.items[i];
+                    if (dist.get(v) / delta == current && taken[v] != phase) {
+                        taken[v] = phase;
+                        frontier.add(v);
+                        if (settled[v] != bucketRound) {
+                            settled[v] = bucketRound;
+                            removed.add(v);
+                        }
+                    }
+                }
+                bucket.size = 0;
+
+                relax(graph, frontier, dist, delta, true, pool, improved);
+                queued += distribute(improved, dist, delta, buckets);
+            }
+
+            relax(graph, removed, dist, delta, false, pool, improved);
+            queued += distribute(improved, dist, delta, buckets);
+            current++;
+        }
+
+        long[] distances = new long[n];
+        for (int v = 0; v < n; v++) {
+            distances[v] = dist.get(v);
+        }
+        int[] pred = new int[n];
+        int reached = predecessors(graph, source, distances, pred);
+        return new Dijkstra.ShortestPaths(source, distances, pred, reached);
+    }
+
+    private static void relax(Graph graph, IntList vertices, AtomicLongArray dist, long delta, boolean light,
+                              ForkJoinPool pool, ConcurrentLinkedQueue<IntList> improved) {
+        int[] items = vertices.items;
+        int grain = ParallelFor.grain(vertices.size, pool, MIN_VERTICES_PER_TASK);
+        ParallelFor.run(pool, 0, vertices.size, grain, (from, to) -> {
+            IntList local = null;
+            for (int i = from; i < to; i++) {
+                int u = items[i];
+                long du = dist.get(u);
+                for (int e = graph.begin(u); e < graph.end(u); e++) {
+                    int w = graph.weight(e);
+                    if ((w <= delta) != light) {
+                        continue;
+                    }
+                    int v = graph.target(e);
+                    long candidate = du + w;
+                    long old = dist.get(v);
+                    while (candidate < old) {
+                        if (dist.compareAndSet(v, old, candidate)) {
+                            if (local == null) {
+                                local = new IntList();
+                            }
+                            local.add(v);
+                            break;
+                        }
+                        old = dist.get(v);
+                    }
+                }
+            }
+            if (local != null) {
+                improved.add(local);
+            }
+        });
+    }
+
+    // Moves the improved vertices into the buckets of their current distance
+    private static int distribute(ConcurrentLinkedQueue<IntList> improved, AtomicLongArray dist, long delta,
+                                  IntList[] buckets) {
+        int added = 0;
+        for (IntList list = improved.poll(); list != null; list = improved.poll()) {
+            for (int i = 0; i < list.size; i++) {
+                int v = list.items[i];
+                buckets[(int) (dist.get(v) / delta % buckets.length)].add(v);
+            }
+            added += list.size;
+        }
+        return added;
+    }
+
+    // Builds a shortest path tree over tight edges and returns the number of reached vertices
+    private static int predecessors(Graph graph, int source, long[] dist, int[] pred) {
+        Arrays.fill(pred, -1);
+        boolean[] visited = new boolean[dist.length];
+        int[] queue = new int[dist.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        visited[source] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = graph.begin(u); e < graph.end(u); e++) {
+                int v = graph.target(e);
+                if (!visited[v] && dist[u] + graph.weight(e) == dist[v]) {
+                    visited[v] = true;
+                    pred[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return tail;
+    }
+
+    private static void checkWeights(Graph graph) {
+        if (!graph.hasWeights()) {
+            throw new IllegalArgumentException("delta-stepping needs a graph with int edge weights");
+        }
+    }
+
+    private static final class IntList {
+        int[] items = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+    }
+}
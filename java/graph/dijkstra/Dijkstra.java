@@ -1,6 +1,11 @@
 package graph.dijkstra;
 
+import graph.CsrGraph;
+import graph.Graph;
+import graph.TraversalMetrics;
+
 import java.util.Arrays;
+import java.util.Random;
 
 /**
  * Dijkstra's Algorithm is a graph traversal algorithm that finds the shortest paths
@@ -24,10 +29,20 @@ import java.util.Arrays;
  * vertex with the minimum distance at each step. It guarantees finding the shortest
  * paths when all edge weights are non-negative.
  *
+ * The priority queue here is an IndexedDaryHeap with decrease-key, so every vertex is
+ * queued at most once, and the graph is in CSR form, so memory grows with V + E rather
+ * than V^2. Distances are longs: a path of up to 2^31 int-weighted edges cannot
+ * overflow. Every settled vertex records the vertex it was reached from, so any shortest
+ * path can be rebuilt by walking the predecessors back to the source. Given a target,
+ * the search stops as soon as the target is settled, since its distance is final then.
+ *
  * Time Complexity:
  * - O((V + E) * log(V)), where V is the number of vertices and E is the number of
  *   edges in the graph. The log(V) factor comes from the priority queue operations.
  *
+ * Space Complexity:
+ * - O(V): distance and predecessor arrays plus the heap. The graph itself takes O(V + E).
+ *
  * Dijkstra's Algorithm may not work correctly for graphs with negative edge weights.
  * For such cases, Bellman-Ford algorithm or other specialized algorithms should be
  * considered.
@@ -35,10 +50,10 @@ import java.util.Arrays;
 
 
 public class Dijkstra {
-    private static final int INF = Integer.MAX_VALUE;
+    public static final long UNREACHABLE = Long.MAX_VALUE;
 
     public static void main(String[] args) {
-        int[][] graph = {
+        int[][] matrix = {
                 {0, 4, 0, 0, 0, 0, 0, 8, 0},
                 {4, 0, 8, 0, 0, 0, 0, 11, 0},
                 {0, 8, 0, 7, 0, 4, 0, 0, 2},
@@ -49,46 +64,182 @@ public class Dijkstra {
                 {8, 11, 0, 0, 0, 0, 1, 0, 7},
                 {0, 0, 2, 0, 0, 0, 6, 7, 0}
         };
+        CsrGraph graph = CsrGraph.fromAdjacencyMatrix(matrix);
 
         int startVertex = 0;
-        dijkstra(graph, startVertex);
+        ShortestPaths paths = shortestPaths(graph, startVertex);
+
+        // Print the shortest distances
+        System.out.println("Shortest distances from vertex " + startVertex + ":");
+        for (int i = 0; i < graph.vertexCount(); i++) {
+            System.out.println("To vertex " + i + ": " + paths.distance(i) + " via " + Arrays.toString(paths.path(i)));
+        }
+
+        // A sparse grid-like road network that could never be stored as a matrix
+        int side = 1500;
+        int vertices = side * side;
+        Random random = new Random(42);
+        int[] sources = new int[2 * vertices];
+        int[] destinations = new int[2 * vertices];
+        int[] weights = new int[2 * vertices];
+        int edges = 0;
+        for (int v = 0; v < vertices; v++) {
+            if ((v + 1) % side != 0) {
+                sources[edges] = v;
+                destinations[edges] = v + 1;
+                weights[edges++] = 1 + random.nextInt(100);
+            }
+            if (v + side < vertices) {
+                sources[edges] = v;
+                destinations[edges] = v + side;
+                weights[edges++] = 1 + random.nextInt(100);
+            }
+        }
+        CsrGraph roads = CsrGraph.fromEdges(vertices, sources, destinations, weights, edges, true);
+        long start = System.nanoTime();
+        ShortestPaths all = shortestPaths(roads, 0);
+        long full = System.nanoTime() - start;
+        start = System.nanoTime();
+        ShortestPaths nearby = shortestPaths(roads, 0, side + 1);
+        long early = System.nanoTime() - start;
+        System.out.println(vertices + " vertices: all targets " + full / 1_000_000 + "ms, settled "
+                + all.settled() + "; single nearby target " + early / 1_000 + "us, settled " + nearby.settled()
+                + ", distance " + nearby.distance(side + 1));
     }
 
-    private static void dijkstra(int[][] graph, int start) {
-        int vertices = graph.length;
-        int[] dist = new int[vertices];
-        boolean[] visited = new boolean[vertices];
+    /**
+     * Distances and predecessors found by one run of the algorithm.
+     */
+    public static final class ShortestPaths {
+        private final int source;
+        private final long[] dist;
+        private final int[] pred;
+        private final int settled;
 
-        // Initialize distances with infinity and mark all vertices as unvisited
-        Arrays.fill(dist, INF);
-        dist[start] = 0;
+        ShortestPaths(int source, long[] dist, int[] pred, int settled) {
+            this.source = source;
+            this.dist = dist;
+            this.pred = pred;
+            this.settled = settled;
+        }
 
-        for (int i = 0; i < vertices - 1; i++) {
-            int minVertex = findMinVertex(dist, visited);
-            visited[minVertex] = true;
+        /**
+         * Shortest distance from the source, or UNREACHABLE. After a search that stopped
+         * at a target, only the target and vertices settled before it are final.
+         */
+        public long distance(int v) {
+            return dist[v];
+        }
 
-            for (int j = 0; j < vertices; j++) {
-                if (!visited[j] && graph[minVertex][j] != 0 &&
-                        dist[minVertex] != INF && dist[minVertex] + graph[minVertex][j] < dist[j]) {
-                    dist[j] = dist[minVertex] + graph[minVertex][j];
-                }
-            }
+        // Vertex before v on its shortest path, -1 for the source and unreached vertices
+        public int predecessor(int v) {
+            return pred[v];
         }
 
-        // Print the shortest distances
-        System.out.println("Shortest distances from vertex " + start + ":");
-        for (int i = 0; i < vertices; i++) {
-            System.out.println("To vertex " + i + ": " + dist[i]);
+        public long[] distances() {
+            return dist;
+        }
+
+        public int[] predecessors() {
+            return pred;
+        }
+
+        // Number of vertices whose distance the search finalized
+        public int settled() {
+            return settled;
         }
+
+        /**
+         * The vertices of a shortest path from the source to target, both included, or an
+         * empty array if target was not reached.
+         */
+        public int[] path(int target) {
+            if (dist[target] == UNREACHABLE) {
+                return new int[0];
+            }
+            int length = 1;
+            for (int v = target; v != source; v = pred[v]) {
+                length++;
+            }
+            int[] path = new int[length];
+            for (int v = target, i = length - 1; i >= 0; v = pred[v], i--) {
+                path[i] = v;
+            }
+            return path;
+        }
+    }
+
+    /**
+     * Returns the shortest distance from start to every vertex, UNREACHABLE if there is
+     * no path. The graph must carry non-negative int weights.
+     */
+    public static long[] dijkstra(Graph graph, int start) {
+        return shortestPaths(graph, start).distances();
+    }
+
+    public static ShortestPaths shortestPaths(Graph graph, int source) {
+        return shortestPaths(graph, source, -1);
     }
 
-    private static int findMinVertex(int[] dist, boolean[] visited) {
-        int minVertex = -1;
-        for (int i = 0; i < dist.length; i++) {
-            if (!visited[i] && (minVertex == -1 || dist[i] < dist[minVertex])) {
-                minVertex = i;
+    /**
+     * Runs until target is settled, or over the whole graph if target is -1.
+     */
+    public static ShortestPaths shortestPaths(Graph graph, int source, int target) {
+        if (!graph.hasWeights()) {
+            throw new IllegalArgumentException("Dijkstra needs a graph with int edge weights");
+        }
+        int vertices = graph.vertexCount();
+        long[] dist = new long[vertices];
+        int[] pred = new int[vertices];
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(pred, -1);
+        IndexedDaryHeap heap = new IndexedDaryHeap(vertices);
+        TraversalMetrics.Run run = TraversalMetrics.ENABLED ? TraversalMetrics.start("Dijkstra") : null;
+        long scanned = 0;
+        long relaxed = 0;
+        long pushes = 1;
+
+        dist[source] = 0;
+        heap.insert(source, 0);
+        int settled = 0;
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            settled++;
+            if (u == target) {
+                break;
+            }
+
+            long du = dist[u];
+            if (TraversalMetrics.ENABLED) {
+                scanned += graph.end(u) - graph.begin(u);
             }
+            for (int e = graph.begin(u); e < graph.end(u); e++) {
+                int w = graph.weight(e);
+                if (w < 0) {
+                    throw new IllegalArgumentException("negative weight " + w + " on edge " + u + " -> " + graph.target(e));
+                }
+                int v = graph.target(e);
+                long candidate = du + w;
+                // settled vertices can never improve, so they are never queued again
+                if (candidate < dist[v]) {
+                    if (TraversalMetrics.ENABLED) {
+                        relaxed++;
+                        pushes += dist[v] == UNREACHABLE ? 1 : 0;
+                    }
+                    dist[v] = candidate;
+                    pred[v] = u;
+                    heap.insertOrDecrease(v, candidate);
+                }
+            }
+        }
+        if (TraversalMetrics.ENABLED) {
+            run.settled(settled);
+            run.scanned(scanned);
+            run.relaxed(relaxed);
+            run.pushed(pushes);
+            run.popped(settled);
+            TraversalMetrics.finish(run);
         }
-        return minVertex;
+        return new ShortestPaths(source, dist, pred, settled);
     }
 }
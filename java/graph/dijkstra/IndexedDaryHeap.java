@@ -0,0 +1,176 @@
+package graph.dijkstra;
+
+import java.util.Arrays;
+
+/**
+ * An Indexed D-ary Heap is a min-priority queue over the items 0 .. capacity - 1 that
+ * can find and lower the key of an item already in the heap. Dijkstra's Algorithm needs
+ * exactly that: when a shorter path to a queued vertex is found, its key is decreased in
+ * place instead of inserting a duplicate entry.
+ *
+ * How the Indexed D-ary Heap Works:
+ * 1. The heap is an implicit tree in two parallel arrays, heap items and their keys. The
+ *    children of slot i are slots D*i + 1 .. D*i + D.
+ * 2. position[item] is the slot of the item, or -1 if it is not in the heap. Every move
+ *    of an item updates it, so decreaseKey finds the item in O(1).
+ * 3. Insert and decreaseKey sift the item up towards the root; pollMin moves the last
+ *    item to the root and sifts it down, picking the smallest of its D children.
+ *
+ * With D = 4 the tree is half as deep as a binary heap. A sift-down compares more
+ * children per level, but they are adjacent in memory, and the keys sit next to each
+ * other in their own long array, so each level costs about one cache miss.
+ *
+ * clear() only resets the positions of the items still in the heap, so a heap can be
+ * reused for many queries without an O(capacity) reset.
+ *
+ * Time Complexity:
+ * - insert, decreaseKey: O(log_D n)
+ * - pollMin: O(D log_D n)
+ * - contains, key, peek: O(1)
+ *
+ * Space Complexity:
+ * O(capacity) for the positions; the heap arrays grow with the number of queued items.
+ *
+ * - Wikipedia: https://en.wikipedia.org/wiki/D-ary_heap
+ */
+public class IndexedDaryHeap {
+    private static final int D = 4;
+
+    private final int[] position;
+    private int[] items;
+    private long[] keys;
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
+        position = new int[capacity];
+        Arrays.fill(position, -1);
+        items = new int[Math.min(capacity, 1024)];
+        keys = new long[items.length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int item) {
+        return position[item] >= 0;
+    }
+
+    public long key(int item) {
+        return keys[position[item]];
+    }
+
+    public int peekMin() {
+        return items[0];
+    }
+
+    public long peekMinKey() {
+        return keys[0];
+    }
+
+    public void insert(int item, long key) {
+        if (position[item] >= 0) {
+            throw new IllegalArgumentException("item " + item + " is already in the heap");
+        }
+        if (size == items.length) {
+            int capacity = (int) Math.min(position.length, Math.max(16L, 2L * size));
+            items = Arrays.copyOf(items, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        siftUp(size++, item, key);
+    }
+
+    public void decreaseKey(int item, long key) {
+        int slot = position[item];
+        if (key > keys[slot]) {
+            throw new IllegalArgumentException("new key " + key + " is larger than " + keys[slot]);
+        }
+        siftUp(slot, item, key);
+    }
+
+    /**
+     * Inserts the item, or lowers its key if it is queued with a larger one. Returns true
+     * if the heap changed.
+     */
+    public boolean insertOrDecrease(int item, long key) {
+        int slot = position[item];
+        if (slot < 0) {
+            insert(item, key);
+            return true;
+        }
+        if (key < keys[slot]) {
+            siftUp(slot, item, key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes and returns the item with the smallest key.
+     */
+    public int pollMin() {
+        int min = items[0];
+        position[min] = -1;
+        if (--size > 0) {
+            siftDown(0, items[size], keys[size]);
+        }
+        return min;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[items[i]] = -1;
+        }
+        size = 0;
+    }
+
+    // Moves the hole at slot up until the parent key is not larger, then places item there
+    private void siftUp(int slot, int item, long key) {
+        while (slot > 0) {
+            int parent = (slot - 1) / D;
+            if (keys[parent] <= key) {
+                break;
+            }
+            place(slot, items[parent], keys[parent]);
+            slot = parent;
+        }
+        place(slot, item, key);
+    }
+
+    private void siftDown(int slot, int item, long key) {
+        while (true) {
+            int first = D * slot + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + D, size);
+            int child = first;
+            long childKey = keys[first];
+            for (int c = first + 1; c < last; c++) {
+                if (keys[c] < childKey) {
+                    child = c;
+                    childKey = keys[c];
+                }
+            }
+            if (key <= childKey) {
+                break;
+            }
+            place(slot, items[child], childKey);
+            slot = child;
+        }
+        place(slot, item, key);
+    }
+
+    private void place(int slot, int item, long key) {
+        items[slot] = item;
+        keys[slot] = key;
+        position[item] = slot;
+    }
+}
@@ -0,0 +1,394 @@
+package graph.dijkstra;
+
+import graph.CsrGraph;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Point-to-point shortest path queries answer "how far is t from s" without computing
+ * the full shortest path tree of s. Two searches are offered on top of Dijkstra.
+ *
+ * Bidirectional Dijkstra:
+ * 1. Run one search forward from s on the graph and one backward from t on the reversed
+ *    graph, always advancing the side whose smallest key is smaller.
+ * 2. Every edge u -> v scanned by one side that reaches a vertex already seen by the other
+ *    side closes an s-t path; keep the shortest one, mu.
+ * 3. Stop once the smallest keys of both heaps add up to at least mu: no path through an
+ *    unsettled vertex can be shorter. Both searches only cover a ball of about half the
+ *    s-t distance, which on road networks settles far fewer vertices than one big ball.
+ *
+ * A* with ALT (A*, Landmarks, Triangle inequality):
+ * 1. Preprocessing picks a few landmarks L by farthest-point selection: each new
+ *    landmark is the vertex farthest from all landmarks picked so far, so they end up
+ *    on the edges of the graph. Distances from and to every landmark are stored.
+ * 2. By the triangle inequality, d(v, t) >= d(L, t) - d(L, v) and d(v, t) >= d(v, L) - d(t, L).
+ *    The largest of these bounds over all landmarks is the heuristic h(v).
+ * 3. Run Dijkstra with key dist(v) + h(v). The heuristic is consistent, so the target's
+ *    distance is final the first time it is taken off the heap, and the search is pulled
+ *    towards t instead of growing in every direction.
+ *
+ * Landmark distances live in two flat long arrays indexed by vertex * landmarks + i, so
+ * the bounds of one vertex sit in one or two cache lines.
+ *
+ * Queries allocate nothing. Each thread keeps its own search state (distances, heaps
+ * and predecessors) and marks the entries of the current query with an epoch stamp, so
+ * nothing has to be cleared between queries. After a query, lastSettledCount and lastPath
+ * describe that thread's most recent query.
+ *
+ * Time Complexity:
+ * - Preprocessing: O(landmarks * (V + E) log V)
+ * - Query: O((V + E) log V) in the worst case; typically a small fraction of the graph.
+ *
+ * Space Complexity:
+ * O(landmarks * V) for the landmark distances, plus O(V) per querying thread.
+ *
+ * - Goldberg and Harrelson, "Computing the Shortest Path: A* Search Meets Graph Theory" (2005)
+ */
+public class PointToPointQuery {
+    private final CsrGraph graph;
+    private final CsrGraph reverse;
+    private final int landmarkCount;
+    private final int[] landmarks;
+    // fromLandmark[v * landmarkCount + i] = d(landmark i, v), toLandmark[...] = d(v, landmark i)
+    private final long[] fromLandmark;
+    private final long[] toLandmark;
+    private final ThreadLocal<SearchState> states;
+
+    public static void main(String[] args) {
+        // A grid-like road network with random travel times
+        int side = 700;
+        int vertices = side * side;
+        Random random = new Random(42);
+        int[] sources = new int[2 * vertices];
+        int[] destinations = new int[2 * vertices];
+        int[] weights = new int[2 * vertices];
+        int edges = 0;
+        for (int v = 0; v < vertices; v++) {
+            if ((v + 1) % side != 0) {
+                sources[edges] = v;
+                destinations[edges] = v + 1;
+                weights[edges++] = 10 + random.nextInt(90);
+            }
+            if (v + side < vertices) {
+                sources[edges] = v;
+                destinations[edges] = v + side;
+                weights[edges++] = 10 + random.nextInt(90);
+            }
+        }
+        CsrGraph graph = CsrGraph.fromEdges(vertices, sources, destinations, weights, edges, true);
+
+        long start = System.nanoTime();
+        PointToPointQuery query = new PointToPointQuery(graph, 8);
+        System.out.println("Preprocessing with 8 landmarks: " + (System.nanoTime() - start) / 1_000_000 + "ms");
+
+        int queries = 200;
+        long settledDijkstra = 0, settledBidirectional = 0, settledAlt = 0;
+        long timeDijkstra = 0, timeBidirectional = 0, timeAlt = 0;
+        for (int q = 0; q < queries; q++) {
+            int s = random.nextInt(vertices);
+            int t = random.nextInt(vertices);
+
+            start = System.nanoTime();
+            Dijkstra.ShortestPaths paths = Dijkstra.shortestPaths(graph, s, t);
+            timeDijkstra += System.nanoTime() - start;
+            settledDijkstra += paths.settled();
+
+            start = System.nanoTime();
+            long bidirectional = query.bidirectionalDistance(s, t);
+            timeBidirectional += System.nanoTime() - start;
+            settledBidirectional += query.lastSettledCount();
+
+            start = System.nanoTime();
+            long alt = query.altDistance(s, t);
+            timeAlt += System.nanoTime() - start;
+            settledAlt += query.lastSettledCount();
+
+            if (bidirectional != paths.distance(t) || alt != paths.distance(t)) {
+                throw new IllegalStateException("distances differ for " + s + " -> " + t);
+            }
+        }
+        System.out.printf("Dijkstra       %8.2f ms/query %9d settled/query%n", timeDijkstra / 1e6 / queries, settledDijkstra / queries);
+        System.out.printf("Bidirectional  %8.2f ms/query %9d settled/query%n", timeBidirectional / 1e6 / queries, settledBidirectional / queries);
+        System.out.printf("ALT            %8.2f ms/query %9d settled/query%n", timeAlt / 1e6 / queries, settledAlt / queries);
+    }
+
+    /**
+     * Preprocesses the graph, which must carry non-negative int weights, with the given
+     * number of landmarks (0 turns A* into plain Dijkstra).
+     */
+    public PointToPointQuery(CsrGraph graph, int landmarkCount) {
+        if (!graph.hasWeights()) {
+            throw new IllegalArgumentException("point-to-point queries need a graph with int edge weights");
+        }
+        int n = graph.vertexCount();
+        if (landmarkCount < 0 || landmarkCount > n) {
+            throw new IllegalArgumentException("landmark count must be in [0, " + n + "]: " + landmarkCount);
+        }
+        if ((long) n * landmarkCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(landmarkCount + " landmarks for " + n + " vertices exceed one array");
+        }
+        this.graph = graph;
+        this.reverse = graph.transpose();
+        this.landmarkCount = landmarkCount;
+        this.landmarks = new int[landmarkCount];
+        this.fromLandmark = new long[n * landmarkCount];
+        this.toLandmark = new long[n * landmarkCount];
+        this.states = ThreadLocal.withInitial(() -> new SearchState(n));
+        selectLandmarks();
+    }
+
+    // Farthest-point selection; vertices no landmark reaches count as the farthest of all
+    private void selectLandmarks() {
+        int n = graph.vertexCount();
+        if (landmarkCount == 0) {
+            return;
+        }
+        long[] nearest = new long[n];
+        long[] seed = Dijkstra.dijkstra(graph, 0);
+        int next = farthest(seed);
+        Arrays.fill(nearest, Dijkstra.UNREACHABLE);
+
+        for (int i = 0; i < landmarkCount; i++) {
+            landmarks[i] = next;
+            long[] from = Dijkstra.dijkstra(graph, next);
+            long[] to = Dijkstra.dijkstra(reverse, next);
+            for (int v = 0; v < n; v++) {
+                fromLandmark[v * landmarkCount + i] = from[v];
+                toLandmark[v * landmarkCount + i] = to[v];
+                nearest[v] = Math.min(nearest[v], from[v]);
+            }
+            // landmarks have distance 0 and are never picked again
+            next = farthest(nearest);
+        }
+    }
+
+    private static int farthest(long[] dist) {
+        int best = 0;
+        for (int v = 1; v < dist.length; v++) {
+            if (dist[v] > dist[best]) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    public int[] landmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Bytes held by the landmark distance arrays.
+     */
+    public long landmarkMemoryBytes() {
+        return 16L * fromLandmark.length;
+    }
+
+    // Vertices settled by the calling thread's last query, both directions together
+    public int lastSettledCount() {
+        return states.get().settled;
+    }
+
+    /**
+     * Writes the vertices of the calling thread's last shortest path, source and target
+     * included, into path and returns their number; 0 if the target was not reachable.
+     *
+     * @throws IllegalArgumentException if path is too short
+     */
+    public int lastPath(int[] path) {
+        SearchState state = states.get();
+        if (state.meetForward < 0) {
+            return 0;
+        }
+        int head = 0;
+        for (int v = state.meetForward; v >= 0; v = state.forwardPred[v]) {
+            head++;
+        }
+        int length = head;
+        for (int v = state.meetBackward; v >= 0; v = state.backwardPred[v]) {
+            length++;
+        }
+        if (path.length < length) {
+            throw new IllegalArgumentException("path needs " + length + " entries, got " + path.length);
+        }
+        for (int v = state.meetForward, i = head - 1; v >= 0; v = state.forwardPred[v], i--) {
+            path[i] = v;
+        }
+        for (int v = state.meetBackward, i = head; v >= 0; v = state.backwardPred[v], i++) {
+            path[i] = v;
+        }
+        return length;
+    }
+
+    /**
+     * Shortest distance from source to target with bidirectional Dijkstra, or
+     * Dijkstra.UNREACHABLE.
+     */
+    public long bidirectionalDistance(int source, int target) {
+        SearchState state = states.get();
+        int epoch = state.begin();
+        IndexedDaryHeap forward = state.forwardHeap;
+        IndexedDaryHeap backward = state.backwardHeap;
+
+        state.reachForward(source, 0, -1, epoch);
+        state.reachBackward(target, 0, -1, epoch);
+        forward.insert(source, 0);
+        backward.insert(target, 0);
+        long best = source == target ? 0 : Dijkstra.UNREACHABLE;
+        state.meet(source == target ? source : -1, -1);
+
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            if (forward.peekMinKey() + backward.peekMinKey() >= best) {
+                break;
+            }
+            boolean forwardTurn = forward.peekMinKey() <= backward.peekMinKey();
+            CsrGraph g = forwardTurn ? graph : reverse;
+            IndexedDaryHeap heap = forwardTurn ? forward : backward;
+            long[] dist = forwardTurn ? state.forwardDist : state.backwardDist;
+            int[] stamp = forwardTurn ? state.forwardStamp : state.backwardStamp;
+            int[] pred = forwardTurn ? state.forwardPred : state.backwardPred;
+            long[] otherDist = forwardTurn ? state.backwardDist : state.forwardDist;
+            int[] otherStamp = forwardTurn ? state.backwardStamp : state.forwardStamp;
+
+            int u = heap.pollMin();
+            state.settled++;
+            long du = dist[u];
+            for (int e = g.begin(u); e < g.end(u); e++) {
+                int v = g.target(e);
+                long candidate = du + g.weight(e);
+                if (stamp[v] != epoch || candidate < dist[v]) {
+                    stamp[v] = epoch;
+                    dist[v] = candidate;
+                    pred[v] = u;
+                    heap.insertOrDecrease(v, candidate);
+                }
+                if (otherStamp[v] == epoch && candidate + otherDist[v] < best) {
+                    best = candidate + otherDist[v];
+                    // the path is s .. u -> v .. t, or s .. v -> u .. t for the backward side
+                    if (forwardTurn) {
+                        state.meet(u, v);
+                    } else {
+                        state.meet(v, u);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Shortest distance from source to target with A* guided by the landmark bounds, or
+     * Dijkstra.UNREACHABLE.
+     */
+    public long altDistance(int source, int target) {
+        SearchState state = states.get();
+        int epoch = state.begin();
+        IndexedDaryHeap heap = state.forwardHeap;
+        long[] dist = state.forwardDist;
+        int[] stamp = state.forwardStamp;
+        state.meet(-1, -1);
+
+        state.reachForward(source, 0, -1, epoch);
+        heap.insert(source, heuristic(source, target));
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            state.settled++;
+            if (u == target) {
+                state.meet(target, -1);
+                return dist[target];
+            }
+            long du = dist[u];
+            for (int e = graph.begin(u); e < graph.end(u); e++) {
+                int v = graph.target(e);
+                long candidate = du + graph.weight(e);
+                if (stamp[v] != epoch || candidate < dist[v]) {
+                    stamp[v] = epoch;
+                    dist[v] = candidate;
+                    state.forwardPred[v] = u;
+                    heap.insertOrDecrease(v, candidate + heuristic(v, target));
+                }
+            }
+        }
+        return Dijkstra.UNREACHABLE;
+    }
+
+    // Largest landmark lower bound on d(v, target); bounds involving unreachable entries are skipped
+    private long heuristic(int v, int target) {
+        long bound = 0;
+        int vi = v * landmarkCount;
+        int ti = target * landmarkCount;
+        for (int i = 0; i < landmarkCount; i++) {
+            long fromV = fromLandmark[vi + i];
+            long fromT = fromLandmark[ti + i];
+            if (fromV != Dijkstra.UNREACHABLE && fromT != Dijkstra.UNREACHABLE) {
+                bound = Math.max(bound, fromT - fromV);
+            }
+            long toV = toLandmark[vi + i];
+            long toT = toLandmark[ti + i];
+            if (toV != Dijkstra.UNREACHABLE && toT != Dijkstra.UNREACHABLE) {
+                bound = Math.max(bound, toV - toT);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Search state of one thread. An entry is valid only if its stamp equals the epoch of
+     * the current query, so starting a query is O(1) apart from clearing the heaps.
+     */
+    private static final class SearchState {
+        final long[] forwardDist;
+        final long[] backwardDist;
+        final int[] forwardStamp;
+        final int[] backwardStamp;
+        final int[] forwardPred;
+        final int[] backwardPred;
+        final IndexedDaryHeap forwardHeap;
+        final IndexedDaryHeap backwardHeap;
+        int epoch;
+        int settled;
+        // last path: the forward tree up to meetForward, then the backward tree from meetBackward
+        int meetForward = -1;
+        int meetBackward = -1;
+
+        SearchState(int n) {
+            forwardDist = new long[n];
+            backwardDist = new long[n];
+            forwardStamp = new int[n];
+            backwardStamp = new int[n];
+            forwardPred = new int[n];
+            backwardPred = new int[n];
+            forwardHeap = new IndexedDaryHeap(n);
+            backwardHeap = new IndexedDaryHeap(n);
+        }
+
+        int begin() {
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(forwardStamp, 0);
+                Arrays.fill(backwardStamp, 0);
+                epoch = 1;
+            }
+            forwardHeap.clear();
+            backwardHeap.clear();
+            settled = 0;
+            return epoch;
+        }
+
+        void meet(int forwardEnd, int backwardStart) {
+            meetForward = forwardEnd;
+            meetBackward = backwardStart;
+        }
+
+        void reachForward(int v, long dist, int pred, int epoch) {
+            forwardStamp[v] = epoch;
+            forwardDist[v] = dist;
+            forwardPred[v] = pred;
+        }
+
+        void reachBackward(int v, long dist, int pred, int epoch) {
+            backwardStamp[v] = epoch;
+            backwardDist[v] = dist;
+            backwardPred[v] = pred;
+        }
+    }
+}
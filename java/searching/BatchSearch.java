@@ -0,0 +1,188 @@
+package searching;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Batch Search answers many Binary Search queries against the same sorted array in one
+ * call. Looking keys up one at a time leaves the CPU waiting on one cache miss after
+ * another; answering them together lets independent lookups overlap.
+ *
+ * How Batch Search Works:
+ * 1. If the queries are already in non-decreasing order, run a merge join: every query
+ *    starts where the previous one ended and gallops forward (1, 2, 4, ... elements)
+ *    before finishing with Binary Search. Close queries cost O(1), far ones O(log gap).
+ * 2. Otherwise, search the queries in groups of four in lockstep. Each step of a
+ *    branchless Binary Search only depends on the length of the range, which is the same
+ *    for every query, so the four searches share one loop and their memory accesses
+ *    are independent and can be in flight at the same time.
+ * 3. Once the range is at most LINEAR_SCAN keys wide, finish with a branchless count of
+ *    the keys below the target, which the JIT unrolls into straight-line compares.
+ *
+ * Results are written to a caller-provided array and no memory is allocated, so the
+ * methods can be called on latency-sensitive paths.
+ *
+ * Time Complexity:
+ * - Sorted queries: O(m * log(n / m)) for m queries over n keys.
+ * - Unsorted queries: O(m * log n), with up to four cache misses overlapped.
+ *
+ * Space Complexity:
+ * O(1) in addition to the results array.
+ *
+ * - Algorithmica: https://en.algorithmica.org/hpc/data-structures/binary-search/
+ */
+
+public class BatchSearch {
+    private static final int LINEAR_SCAN = 16;
+
+    public static void main(String[] args) {
+        int n = 10_000_000;
+        int[] sorted = new Random(42).ints(n, 0, Integer.MAX_VALUE).sorted().toArray();
+        int m = 2_000_000;
+        int[] queries = new Random(7).ints(m, 0, Integer.MAX_VALUE).toArray();
+        int[] sortedQueries = Arrays.copyOf(queries, m);
+        Arrays.sort(sortedQueries);
+        int[] results = new int[m];
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            long checksum = 0;
+            for (int query : queries) {
+                checksum += BinarySearch.lowerBound(sorted, query);
+            }
+            report("one at a time", m, System.nanoTime() - start, checksum);
+
+            start = System.nanoTime();
+            lowerBounds(sorted, queries, results);
+            report("interleaved", m, System.nanoTime() - start, sum(results));
+
+            start = System.nanoTime();
+            lowerBounds(sorted, sortedQueries, results);
+            report("merge join", m, System.nanoTime() - start, sum(results));
+        }
+    }
+
+    private static void report(String name, int queries, long nanos, long checksum) {
+        System.out.printf("%-14s %6.1f ns/lookup checksum=%d%n", name, (double) nanos / queries, checksum);
+    }
+
+    private static long sum(int[] values) {
+        long sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * For every queries[i], stores in results[i] the index of the first element of sorted
+     * equal to it, or -1 when it is absent.
+     */
+    public static void lookup(int[] sorted, int[] queries, int[] results) {
+        lowerBounds(sorted, queries, results);
+        for (int i = 0; i < queries.length; i++) {
+            int index = results[i];
+            if (index == sorted.length || sorted[index] != queries[i]) {
+                results[i] = -1;
+            }
+        }
+    }
+
+    /**
+     * For every queries[i], stores in results[i] the index of the first element of sorted
+     * that is >= queries[i], or sorted.length when there is none.
+     */
+    public static void lowerBounds(int[] sorted, int[] queries, int[] results) {
+        if (results.length < queries.length) {
+            throw new IllegalArgumentException("results holds " + results.length
+                    + " entries for " + queries.length + " queries");
+        }
+        if (isSorted(queries)) {
+            mergeJoin(sorted, queries, results);
+        } else {
+            interleaved(sorted, queries, results);
+        }
+    }
+
+    private static boolean isSorted(int[] queries) {
+        for (int i = 1; i < queries.length; i++) {
+            if (queries[i - 1] > queries[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void mergeJoin(int[] sorted, int[] queries, int[] results) {
+        int n = sorted.length;
+        int position = 0;
+        for (int i = 0; i < queries.length; i++) {
+            int query = queries[i];
+
+            // gallop until the answer is bracketed by [low, high]
+            int low = position;
+            int high = position;
+            int step = 1;
+            while (high < n && sorted[high] < query) {
+                low = high + 1;
+                // clamped before adding, so high cannot overflow on arrays near 2^31 elements
+                high += Math.min(step, n - high);
+                step <<= 1;
+            }
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] < query) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            results[i] = position = low;
+        }
+    }
+
+    private static void interleaved(int[] sorted, int[] queries, int[] results) {
+        int n = sorted.length;
+        int m = queries.length;
+        int i = 0;
+        for (; i + 4 <= m; i += 4) {
+            int q0 = queries[i], q1 = queries[i + 1], q2 = queries[i + 2], q3 = queries[i + 3];
+            int b0 = 0, b1 = 0, b2 = 0, b3 = 0;
+            int length = n;
+            // the answer for every query stays within [base, base + length]
+            while (length > LINEAR_SCAN) {
+                int half = length >>> 1;
+                b0 = sorted[b0 + half - 1] < q0 ? b0 + half : b0;
+                b1 = sorted[b1 + half - 1] < q1 ? b1 + half : b1;
+                b2 = sorted[b2 + half - 1] < q2 ? b2 + half : b2;
+                b3 = sorted[b3 + half - 1] < q3 ? b3 + half : b3;
+                length -= half;
+            }
+            results[i] = b0 + countLess(sorted, b0, length, q0);
+            results[i + 1] = b1 + countLess(sorted, b1, length, q1);
+            results[i + 2] = b2 + countLess(sorted, b2, length, q2);
+            results[i + 3] = b3 + countLess(sorted, b3, length, q3);
+        }
+
+        for (; i < m; i++) {
+            int query = queries[i];
+            int base = 0;
+            int length = n;
+            while (length > LINEAR_SCAN) {
+                int half = length >>> 1;
+                base = sorted[base + half - 1] < query ? base + half : base;
+                length -= half;
+            }
+            results[i] = base + countLess(sorted, base, length, query);
+        }
+    }
+
+    private static int countLess(int[] sorted, int from, int length, int target) {
+        int count = 0;
+        for (int j = from; j < from + length; j++) {
+            count += sorted[j] < target ? 1 : 0;
+        }
+        return count;
+    }
+}
@@ -15,6 +15,11 @@ package searching;
  *    - If the middle element is greater than the target, narrow the search to the left half.
  * 4. Repeat steps 2-3 until the target element is found or the search range becomes empty.
  *
+ * Range queries use two variants that never stop early: lowerBound returns the first
+ * index whose element is not less than the target and upperBound the first index whose
+ * element is greater than it. Together they delimit every element in a key range, and
+ * equalRange returns both for a single key.
+ *
  * Time Complexity:
  * - Best Case: O(1) [constant time for a single element array]
  * - Average Case: O(log n) [logarithmic time for a sorted array]
@@ -47,9 +52,18 @@ public class BinarySearch {
         } else {
             System.out.println("Element " + targetElement + " not found in the array");
         }
+
+        // Range query: all elements in [3, 7)
+        int[] withDuplicates = {1, 3, 3, 3, 5, 7, 7, 9};
+        int from = lowerBound(withDuplicates, 3);
+        int to = lowerBound(withDuplicates, 7);
+        System.out.println("Elements in [3, 7) occupy indices [" + from + ", " + to + ")");
+
+        int[] range = equalRange(withDuplicates, 3);
+        System.out.println("Element 3 occupies indices [" + range[0] + ", " + range[1] + ")");
     }
 
-    private static int binarySearch(int[] arr, int target) {
+    public static int binarySearch(int[] arr, int target) {
         int left = 0;
         int right = arr.length - 1;
 
@@ -75,5 +89,57 @@ public class BinarySearch {
         // If target is not present in the array
         return -1;
     }
-}
 
+    // First index whose element is >= target, or arr.length if there is none
+    public static int lowerBound(int[] arr, int target) {
+        int left = 0;
+        int right = arr.length;
+
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (arr[mid] < target) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        return left;
+    }
+
+    // First index whose element is > target, or arr.length if there is none
+    public static int upperBound(int[] arr, int target) {
+        int left = 0;
+        int right = arr.length;
+
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (arr[mid] <= target) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        return left;
+    }
+
+    // Half-open index range {lowerBound, upperBound} of the elements equal to target
+    public static int[] equalRange(int[] arr, int target) {
+        int lower = lowerBound(arr, target);
+        int upper = lower;
+        if (lower < arr.length && arr[lower] == target) {
+            // the upper bound can only lie to the right of the lower bound
+            int left = lower + 1;
+            int right = arr.length;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (arr[mid] <= target) {
+                    left = mid + 1;
+                } else {
+                    right = mid;
+                }
+            }
+            upper = left;
+        }
+        return new int[]{lower, upper};
+    }
+}
@@ -0,0 +1,217 @@
+package searching;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Eytzinger Search is Binary Search over the same keys stored in a cache-friendly
+ * order. A sorted array places the probes of one search far apart, so on a large array
+ * almost every probe is a cache miss. Storing the implicit search tree in breadth-first
+ * order (the Eytzinger layout, as in a binary heap) keeps the first levels of the tree
+ * in a few hot cache lines and places the children of node k next to each other at
+ * 2k and 2k + 1.
+ *
+ * How Eytzinger Search Works:
+ * 1. Build: Walk the sorted array in order while filling the tree positions 1..n in
+ *    in-order, which produces the breadth-first layout of a balanced search tree. The
+ *    sorted index of every key is stored alongside it.
+ * 2. Search: Start at k = 1 and descend with k = 2k + (tree[k] < target). The loop has
+ *    no data-dependent branch, so it does not suffer branch mispredictions.
+ * 3. When k falls off the tree, its binary representation records every turn taken.
+ *    Shifting off the trailing right turns (ones) and the final left turn leads to the
+ *    last node where the search went left, which is the lower bound.
+ *
+ * The S-tree variant goes one step further and packs B = 16 keys into every node, one
+ * 64-byte cache line, so each level costs a single cache miss and the tree is only
+ * log_17(n) levels deep. Each node is scanned with a branchless count of keys below
+ * the target, which is also the child to descend into.
+ *
+ * Both variants answer lowerBound(target), the first sorted index whose key is not
+ * less than target, and search(target), which returns that index when it holds target
+ * and -1 otherwise, like BinarySearch.binarySearch.
+ *
+ * Time Complexity:
+ * - Build: O(n)
+ * - Search: O(log n), with O(log n / log B) cache misses for the S-tree.
+ *
+ * Space Complexity:
+ * O(n): one copy of the keys in tree order plus their sorted indices. The S-tree pads
+ * the last node to a full cache line.
+ *
+ * - Khuong and Morin, "Array Layouts for Comparison-Based Searching" (2017)
+ * - Algorithmica: https://en.algorithmica.org/hpc/data-structures/binary-search/
+ * - Algorithmica: https://en.algorithmica.org/hpc/data-structures/s-tree/
+ */
+
+public class EytzingerSearch {
+    private static final int BLOCK = 16;
+
+    // Eytzinger layout, 1-based: tree[0] and rank[0] are unused
+    private final int[] tree;
+    private final int[] rank;
+    private final int n;
+
+    // S-tree layout: node k holds keys bTree[k * BLOCK .. k * BLOCK + BLOCK - 1]
+    private final int[] bTree;
+    private final int[] bRank;
+    private final int blocks;
+
+    public static void main(String[] args) {
+        int n = 10_000_000;
+        int[] sorted = new Random(42).ints(n, 0, Integer.MAX_VALUE).sorted().toArray();
+
+        long start = System.nanoTime();
+        EytzingerSearch index = new EytzingerSearch(sorted);
+        long buildNanos = System.nanoTime() - start;
+        System.out.println("Built index over " + n + " keys in " + buildNanos / 1_000_000 + "ms, "
+                + index.memoryBytes() / (1 << 20) + " MB (input " + 4L * n / (1 << 20) + " MB)");
+
+        int queries = 5_000_000;
+        int[] targets = new Random(7).ints(queries, 0, Integer.MAX_VALUE).toArray();
+        for (int round = 0; round < 3; round++) {
+            long checksum = 0;
+            start = System.nanoTime();
+            for (int target : targets) {
+                checksum += BinarySearch.lowerBound(sorted, target);
+            }
+            report("binary lowerBound", queries, System.nanoTime() - start, checksum);
+
+            checksum = 0;
+            start = System.nanoTime();
+            for (int target : targets) {
+                checksum += index.lowerBound(target);
+            }
+            report("eytzinger", queries, System.nanoTime() - start, checksum);
+
+            checksum = 0;
+            start = System.nanoTime();
+            for (int target : targets) {
+                checksum += index.lowerBoundBlocked(target);
+            }
+            report("s-tree", queries, System.nanoTime() - start, checksum);
+        }
+    }
+
+    private static void report(String name, int queries, long nanos, long checksum) {
+        System.out.printf("%-18s %6.1f ns/lookup checksum=%d%n", name, (double) nanos / queries, checksum);
+    }
+
+    /**
+     * Builds both layouts from a sorted array. The array is not modified or retained.
+     */
+    public EytzingerSearch(int[] sorted) {
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1] > sorted[i]) {
+                throw new IllegalArgumentException("input is not sorted at index " + i);
+            }
+        }
+
+        n = sorted.length;
+        tree = new int[n + 1];
+        rank = new int[n + 1];
+        buildEytzinger(sorted, 0, 1);
+
+        blocks = (n + BLOCK - 1) / BLOCK;
+        bTree = new int[blocks * BLOCK];
+        bRank = new int[blocks * BLOCK];
+        // padding sorts after every real key and maps to "not found"
+        Arrays.fill(bTree, Integer.MAX_VALUE);
+        Arrays.fill(bRank, n);
+        buildBlocked(sorted, 0, 0);
+    }
+
+    // In-order fill of the implicit tree; returns the next unused sorted index
+    private int buildEytzinger(int[] sorted, int i, int k) {
+        if (k <= n) {
+            i = buildEytzinger(sorted, i, 2 * k);
+            tree[k] = sorted[i];
+            rank[k] = i++;
+            i = buildEytzinger(sorted, i, 2 * k + 1);
+        }
+        return i;
+    }
+
+    private int buildBlocked(int[] sorted, int i, int k) {
+        if (k < blocks) {
+            for (int j = 0; j < BLOCK; j++) {
+                i = buildBlocked(sorted, i, child(k, j));
+                if (i < n) {
+                    bTree[k * BLOCK + j] = sorted[i];
+                    bRank[k * BLOCK + j] = i++;
+                }
+            }
+            i = buildBlocked(sorted, i, child(k, BLOCK));
+        }
+        return i;
+    }
+
+    private static int child(int k, int j) {
+        return k * (BLOCK + 1) + j + 1;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Bytes held by both layouts, to weigh against the 4 * n bytes of the sorted array.
+     */
+    public long memoryBytes() {
+        return 4L * (tree.length + rank.length + bTree.length + bRank.length);
+    }
+
+    public int search(int target) {
+        int k = lowerBoundPosition(target);
+        return k != 0 && tree[k] == target ? rank[k] : -1;
+    }
+
+    /**
+     * Returns the first sorted index whose key is >= target, or size() if there is none.
+     */
+    public int lowerBound(int target) {
+        int k = lowerBoundPosition(target);
+        return k == 0 ? n : rank[k];
+    }
+
+    // Eytzinger position of the lower bound, 0 when every key is below target
+    private int lowerBoundPosition(int target) {
+        int k = 1;
+        while (k <= n) {
+            k = 2 * k + (tree[k] < target ? 1 : 0);
+        }
+        // undo the trailing right turns and the last left turn
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    public int searchBlocked(int target) {
+        int slot = lowerBoundSlot(target);
+        return slot >= 0 && bTree[slot] == target && bRank[slot] < n ? bRank[slot] : -1;
+    }
+
+    /**
+     * Same contract as lowerBound, answered from the cache-line-blocked S-tree.
+     */
+    public int lowerBoundBlocked(int target) {
+        int slot = lowerBoundSlot(target);
+        return slot < 0 ? n : bRank[slot];
+    }
+
+    // S-tree slot of the lower bound, -1 when every key is below target
+    private int lowerBoundSlot(int target) {
+        int k = 0;
+        int slot = -1;
+        while (k < blocks) {
+            int base = k * BLOCK;
+            int i = 0;
+            for (int j = 0; j < BLOCK; j++) {
+                i += bTree[base + j] < target ? 1 : 0;
+            }
+            // a deeper candidate is always smaller than the one found above it
+            if (i < BLOCK) {
+                slot = base + i;
+            }
+            k = child(k, i);
+        }
+        return slot;
+    }
+}
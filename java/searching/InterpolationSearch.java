@@ -0,0 +1,164 @@
+package searching;
+
+import java.util.Random;
+
+/**
+ * Interpolation Search improves on Binary Search when the keys are spread roughly
+ * uniformly, such as timestamps or sequence numbers. Instead of probing the middle of
+ * the range it estimates where the target should be from the values at both ends, the
+ * way one opens a phone book near "S" rather than in the middle.
+ *
+ * How Interpolation Search Works:
+ * 1. Keep a range [low, high] that is known to contain the lower bound of the target.
+ * 2. Probe position p = low + (target - a[low]) / (a[high - 1] - a[low]) * (high - 1 - low).
+ * 3. Gallop from p towards the target with steps of 1, 2, 4, ... until the lower bound
+ *    is bracketed. The bracket is as small as the estimation error, not the range.
+ * 4. Repeat steps 2-3 on the bracket for at most MAX_ROUNDS rounds, then finish with
+ *    Binary Search. If the bracket is still wide at that point, the keys are not
+ *    uniform enough and the query counts as a fallback in stats().
+ *
+ * The galloping steps mean a wrong estimate costs at most O(log n) extra probes, so the
+ * result is always exact and the worst case stays logarithmic.
+ *
+ * Time Complexity:
+ * - Uniform keys: O(log log n) on average.
+ * - Worst Case: O(log n) [estimates far off, galloping plus Binary Search]
+ *
+ * Space Complexity:
+ * O(1). The sorted array is referenced, not copied.
+ *
+ * - Wikipedia: https://en.wikipedia.org/wiki/Interpolation_search
+ */
+
+public class InterpolationSearch {
+    private static final int MAX_ROUNDS = 3;
+    private static final int LINEAR_RANGE = 16;
+
+    private final int[] sorted;
+    private final SearchStats stats = new SearchStats();
+
+    public static void main(String[] args) {
+        // Near-uniform timestamps: one event roughly every 500 ms with jitter
+        int n = 3_000_000;
+        Random random = new Random(42);
+        int[] timestamps = new int[n];
+        for (int i = 1; i < n; i++) {
+            timestamps[i] = timestamps[i - 1] + 200 + random.nextInt(600);
+        }
+
+        InterpolationSearch interpolation = new InterpolationSearch(timestamps);
+        LearnedIndex learned = new LearnedIndex(timestamps, 1 << 14);
+        int queries = 2_000_000;
+        int[] targets = random.ints(queries, 0, timestamps[n - 1]).toArray();
+
+        for (int round = 0; round < 3; round++) {
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (int target : targets) {
+                checksum += BinarySearch.lowerBound(timestamps, target);
+            }
+            report("binary", queries, System.nanoTime() - start, checksum);
+
+            checksum = 0;
+            start = System.nanoTime();
+            for (int target : targets) {
+                checksum += interpolation.lowerBound(target);
+            }
+            report("interpolation", queries, System.nanoTime() - start, checksum);
+
+            checksum = 0;
+            start = System.nanoTime();
+            for (int target : targets) {
+                checksum += learned.lowerBound(target);
+            }
+            report("learned", queries, System.nanoTime() - start, checksum);
+        }
+        System.out.println("interpolation " + interpolation.stats());
+        System.out.println("learned       " + learned.stats());
+    }
+
+    private static void report(String name, int queries, long nanos, long checksum) {
+        System.out.printf("%-14s %6.1f ns/lookup checksum=%d%n", name, (double) nanos / queries, checksum);
+    }
+
+    /**
+     * Searches the given array, which must be sorted and must not change afterwards.
+     */
+    public InterpolationSearch(int[] sorted) {
+        this.sorted = sorted;
+    }
+
+    public SearchStats stats() {
+        return stats;
+    }
+
+    public int search(int target) {
+        int index = lowerBound(target);
+        return index < sorted.length && sorted[index] == target ? index : -1;
+    }
+
+    /**
+     * Returns the first index whose element is >= target, or the array length if there is none.
+     */
+    public int lowerBound(int target) {
+        int[] a = sorted;
+        int low = 0;
+        int high = a.length;
+        int probes = 0;
+
+        for (int round = 0; round < MAX_ROUNDS && high - low > LINEAR_RANGE; round++) {
+            probes += 2;
+            if (target <= a[low]) {
+                stats.record(probes, false);
+                return low;
+            }
+            if (target > a[high - 1]) {
+                stats.record(probes, false);
+                return high;
+            }
+
+            // a[low] < target <= a[high - 1], so the divisor is positive
+            double fraction = ((double) target - a[low]) / ((double) a[high - 1] - a[low]);
+            int p = low + (int) (fraction * (high - 1 - low));
+
+            probes++;
+            int bound = 1;
+            if (a[p] < target) {
+                // the answer lies in (p, high]
+                while (p + bound < high) {
+                    probes++;
+                    if (a[p + bound] >= target) {
+                        break;
+                    }
+                    bound <<= 1;
+                }
+                low = p + (bound >>> 1) + 1;
+                high = Math.min(high, p + bound);
+            } else {
+                // the answer lies in [low, p]
+                while (p - bound >= low) {
+                    probes++;
+                    if (a[p - bound] < target) {
+                        break;
+                    }
+                    bound <<= 1;
+                }
+                high = p - (bound >>> 1);
+                low = Math.max(low, p - bound + 1);
+            }
+        }
+
+        boolean fallback = high - low > LINEAR_RANGE;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            probes++;
+            if (a[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        stats.record(probes, fallback);
+        return low;
+    }
+}
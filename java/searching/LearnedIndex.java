@@ -0,0 +1,198 @@
+package searching;
+
+/**
+ * A Learned Index replaces the upper levels of a search tree with a model that
+ * predicts where a key sits in the sorted array. This is a two-stage recursive model
+ * index (RMI) made of straight lines, trained once on the sorted array.
+ *
+ * How the Learned Index Works:
+ * 1. Root model: A line from the smallest to the largest key maps every key to one of
+ *    the segments. The line never decreases, so the keys routed to a segment form one
+ *    contiguous slice [start, end) of the sorted array, and the lower bound of any
+ *    query routed to that segment lies in [start, end].
+ * 2. Leaf models: Every segment fits a line through the first and last of its keys and
+ *    records its maximum error, the largest distance between a predicted and an actual
+ *    position over all of its keys.
+ * 3. Lookup: Route the query to a segment, predict its position and Binary Search only
+ *    the window of +/- maximum error around the prediction.
+ * 4. Check that the answer does not sit on an edge of the window that it could have
+ *    crossed. If it does, search the whole segment instead and count a fallback in
+ *    stats(). Results are therefore always exact, whatever the model predicts.
+ *
+ * Time Complexity:
+ * - Build: O(n)
+ * - Search: O(log e), where e is the maximum error of the segment, or O(log s) for a
+ *   segment of s keys on a fallback.
+ *
+ * Space Complexity:
+ * O(segments): two doubles and two ints per segment. The sorted array is referenced,
+ * not copied.
+ *
+ * - Kraska et al., "The Case for Learned Index Structures" (2018)
+ */
+
+public class LearnedIndex {
+    private final int[] sorted;
+    private final int segments;
+    private final double minKey;
+    private final double rootSlope;
+    private final int[] segmentStart;
+    private final double[] slope;
+    private final double[] intercept;
+    private final int[] maxError;
+    private final SearchStats stats = new SearchStats();
+
+    public static void main(String[] args) {
+        int[] timestamps = {1000, 2010, 2990, 4005, 5000, 6020, 6980, 8000, 9010, 10000};
+        LearnedIndex index = new LearnedIndex(timestamps, 4);
+
+        int target = 6980;
+        System.out.println("Element " + target + " found at index " + index.search(target));
+        System.out.println("Lower bound of 6000 is index " + index.lowerBound(6000));
+        System.out.println(index.stats());
+    }
+
+    /**
+     * Trains the model on the given array, which must be sorted and must not change
+     * afterwards.
+     */
+    public LearnedIndex(int[] sorted, int segments) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("segments must be positive: " + segments);
+        }
+        this.sorted = sorted;
+        this.segments = segments;
+        int n = sorted.length;
+
+        minKey = n == 0 ? 0 : sorted[0];
+        double range = n == 0 ? 1 : (double) sorted[n - 1] - sorted[0] + 1;
+        rootSlope = segments / range;
+
+        // keys routed to each segment are contiguous, so one pass finds the slices
+        segmentStart = new int[segments + 1];
+        int segment = 0;
+        for (int i = 0; i < n; i++) {
+            int route = route(sorted[i]);
+            while (segment < route) {
+                segmentStart[++segment] = i;
+            }
+        }
+        while (segment < segments) {
+            segmentStart[++segment] = n;
+        }
+
+        slope = new double[segments];
+        intercept = new double[segments];
+        maxError = new int[segments];
+        for (int s = 0; s < segments; s++) {
+            train(s);
+        }
+    }
+
+    private void train(int s) {
+        int start = segmentStart[s];
+        int end = segmentStart[s + 1];
+        if (end - start < 2 || sorted[start] == sorted[end - 1]) {
+            slope[s] = 0;
+            intercept[s] = start;
+        } else {
+            slope[s] = (double) (end - 1 - start) / ((double) sorted[end - 1] - sorted[start]);
+            intercept[s] = start - slope[s] * sorted[start];
+        }
+
+        int error = 0;
+        for (int i = start; i < end; i++) {
+            error = Math.max(error, Math.abs(predict(s, sorted[i]) - i));
+        }
+        maxError[s] = error;
+    }
+
+    private int route(int key) {
+        int s = (int) ((key - minKey) * rootSlope);
+        return s < 0 ? 0 : Math.min(s, segments - 1);
+    }
+
+    private int predict(int s, int key) {
+        return (int) (slope[s] * key + intercept[s]);
+    }
+
+    public SearchStats stats() {
+        return stats;
+    }
+
+    /**
+     * Largest maximum error over all segments; the worst-case window is twice as wide.
+     */
+    public int maxError() {
+        int error = 0;
+        for (int e : maxError) {
+            error = Math.max(error, e);
+        }
+        return error;
+    }
+
+    public int search(int target) {
+        int index = lowerBound(target);
+        return index < sorted.length && sorted[index] == target ? index : -1;
+    }
+
+    /**
+     * Returns the first index whose element is >= target, or the array length if there is none.
+     */
+    public int lowerBound(int target) {
+        int[] a = sorted;
+        int s = route(target);
+        int start = segmentStart[s];
+        int end = segmentStart[s + 1];
+        if (start == end) {
+            stats.record(0, false);
+            return start;
+        }
+
+        // the +1 covers absent keys that fall between two predicted positions
+        int predicted = predict(s, target);
+        int low = Math.max(start, Math.min(end, predicted - maxError[s]));
+        int high = Math.min(end, Math.max(start, predicted + maxError[s] + 1));
+
+        int probes = 0;
+        int left = low, right = high;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            probes++;
+            if (a[mid] < target) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        int result = left;
+
+        // the answer may lie outside the window only if it landed on an edge
+        boolean fallback = false;
+        if (result == low && low > start) {
+            probes++;
+            fallback = a[low - 1] >= target;
+        }
+        if (!fallback && result == high && high < end) {
+            probes++;
+            fallback = a[high] < target;
+        }
+        if (fallback) {
+            left = start;
+            right = end;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                probes++;
+                if (a[mid] < target) {
+                    left = mid + 1;
+                } else {
+                    right = mid;
+                }
+            }
+            result = left;
+        }
+
+        stats.record(probes, fallback);
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package searching;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Probe counters for the model-based searches (InterpolationSearch and LearnedIndex).
+ * A probe is one read of the sorted array. A fallback is a query where the model's
+ * guess was not good enough and the search had to widen to a plain Binary Search.
+ * A rising average probe count or fallback rate shows that the key distribution has
+ * drifted away from what the model expects.
+ *
+ * The counters are LongAdders, so one instance can be shared by concurrent readers.
+ */
+public class SearchStats {
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    void record(int queryProbes, boolean fallback) {
+        queries.increment();
+        probes.add(queryProbes);
+        if (fallback) {
+            fallbacks.increment();
+        }
+    }
+
+    public long queries() {
+        return queries.sum();
+    }
+
+    public long probes() {
+        return probes.sum();
+    }
+
+    public long fallbacks() {
+        return fallbacks.sum();
+    }
+
+    public double averageProbes() {
+        long count = queries.sum();
+        return count == 0 ? 0 : (double) probes.sum() / count;
+    }
+
+    public double fallbackRate() {
+        long count = queries.sum();
+        return count == 0 ? 0 : (double) fallbacks.sum() / count;
+    }
+
+    public void reset() {
+        queries.reset();
+        probes.reset();
+        fallbacks.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("queries=%d probes/query=%.2f fallbacks=%.4f%%",
+                queries(), averageProbes(), 100 * fallbackRate());
+    }
+}
@@ -0,0 +1,329 @@
+package sorting;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * External Merge Sort sorts files of fixed-width integers that are too large to fit in
+ * memory. It is Merge Sort with the bottom levels done in memory and the top levels
+ * done as sequential passes over files.
+ *
+ * How External Merge Sort Works:
+ * 1. Run formation: Map the input file chunk by chunk with FileChannel.map, copy each
+ *    chunk of at most runSize ints into one reusable int[], sort it in place with
+ *    RadixSorting.americanFlagSort and write it to a temporary run file.
+ * 2. Merge passes: While there are more runs than fanIn, merge groups of fanIn runs
+ *    into longer runs. Every pass reads and writes the data once, sequentially.
+ * 3. Final merge: Merge the remaining runs straight into the output file.
+ *
+ * The k-way merge is MergeSorting.merge generalized from two inputs to k: instead of
+ * comparing the heads of two arrays it keeps the heads of all runs in a binary min-heap
+ * and repeatedly writes the smallest one. As in the two-way merge, ties are taken from
+ * the earlier run first, so the merge phase is stable.
+ *
+ * Time Complexity:
+ * - O(n log n) comparisons.
+ * - I/O: 2 * n * (1 + ceil(log_fanIn(n / runSize))) ints read and written.
+ *
+ * Space Complexity:
+ * O(runSize) ints of heap for run formation, plus one fixed-size I/O buffer per run
+ * being merged. Temporary files hold one extra copy of the input at a time.
+ *
+ * - Wikipedia: https://en.wikipedia.org/wiki/External_sorting
+ */
+
+public class ExternalMergeSorting {
+    private static final int IO_BUFFER_BYTES = 1 << 16;
+    private static final long MAX_MAPPED_BYTES = Integer.MAX_VALUE & ~3L;
+
+    private final int runSize;
+    private final int fanIn;
+    private final Path tempDirectory;
+    private final ByteOrder byteOrder;
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("external-sort");
+        Path input = directory.resolve("input.bin");
+        Path output = directory.resolve("output.bin");
+
+        int n = 2_000_000;
+        Random random = new Random(42);
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4 * n);
+            for (int i = 0; i < n; i++) {
+                buffer.putInt(random.nextInt());
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        long start = System.nanoTime();
+        new ExternalMergeSorting(250_000, 4, directory).sort(input, output);
+        long elapsed = System.nanoTime() - start;
+
+        boolean sorted = true;
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.READ)) {
+            IntBuffer values = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
+            for (int i = 1; i < values.limit(); i++) {
+                sorted &= values.get(i - 1) <= values.get(i);
+            }
+            System.out.println("Sorted " + values.limit() + " ints in " + elapsed / 1_000_000 + "ms, sorted=" + sorted);
+        }
+
+        Files.delete(input);
+        Files.delete(output);
+        Files.delete(directory);
+    }
+
+    public ExternalMergeSorting(int runSize, int fanIn, Path tempDirectory) {
+        this(runSize, fanIn, tempDirectory, ByteOrder.BIG_ENDIAN);
+    }
+
+    public ExternalMergeSorting(int runSize, int fanIn, Path tempDirectory, ByteOrder byteOrder) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("runSize must be positive: " + runSize);
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("fanIn must be at least 2: " + fanIn);
+        }
+        this.runSize = runSize;
+        this.fanIn = fanIn;
+        this.tempDirectory = tempDirectory;
+        this.byteOrder = byteOrder;
+    }
+
+    /**
+     * Sorts the 4-byte integers of input into output. Temporary runs are created in the
+     * configured directory and deleted before returning, also when sorting fails.
+     */
+    public void sort(Path input, Path output) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        // Every run of every pass, so that a failing intermediate merge leaves nothing behind
+        List<Path> created = new ArrayList<>();
+        try {
+            createRuns(input, runs);
+            created.addAll(runs);
+            while (runs.size() > fanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                    Path run = Files.createTempFile(tempDirectory, "run", ".bin");
+                    created.add(run);
+                    merged.add(run);
+                    merge(group, run);
+                }
+                deleteAll(runs);
+                runs = merged;
+            }
+            merge(runs, output);
+        } finally {
+            deleteAll(runs);
+            deleteAll(created);
+        }
+    }
+
+    private void createRuns(Path input, List<Path> runs) throws IOException {
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0) {
+                throw new IOException(input + " is not a whole number of 4-byte integers: " + size + " bytes");
+            }
+
+            long total = size / Integer.BYTES;
+            int[] chunk = new int[(int) Math.min(runSize, total)];
+            long position = 0;
+            while (position < total) {
+                int count = (int) Math.min(chunk.length, total - position);
+                readChunk(channel, position * Integer.BYTES, chunk, count);
+                RadixSorting.americanFlagSort(chunk, 0, count);
+
+                Path run = Files.createTempFile(tempDirectory, "run", ".bin");
+                runs.add(run);
+                try (IntWriter writer = new IntWriter(run, byteOrder)) {
+                    for (int i = 0; i < count; i++) {
+                        writer.write(chunk[i]);
+                    }
+                }
+                position += count;
+            }
+        }
+    }
+
+    // A single mapping is limited to 2 GB, so large chunks are mapped piecewise
+    private void readChunk(FileChannel channel, long offset, int[] chunk, int count) throws IOException {
+        int done = 0;
+        while (done < count) {
+            int length = (int) Math.min(count - done, MAX_MAPPED_BYTES / Integer.BYTES);
+            IntBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,
+                    offset + (long) done * Integer.BYTES, (long) length * Integer.BYTES)
+                    .order(byteOrder).asIntBuffer();
+            mapped.get(chunk, done, length);
+            done += length;
+        }
+    }
+
+    private void merge(List<Path> runs, Path output) throws IOException {
+        IntReader[] readers = new IntReader[runs.size()];
+        try (IntWriter writer = new IntWriter(output, byteOrder)) {
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new IntReader(runs.get(i), byteOrder);
+            }
+
+            // Min-heap of run indices ordered by (current head, run index)
+            int[] heap = new int[readers.length];
+            int size = 0;
+            for (int i = 0; i < readers.length; i++) {
+                if (readers[i].hasNext()) {
+                    heap[size++] = i;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(heap, i, size, readers);
+            }
+
+            while (size > 0) {
+                IntReader smallest = readers[heap[0]];
+                writer.write(smallest.head());
+                if (smallest.advance()) {
+                    siftDown(heap, 0, size, readers);
+                } else {
+                    heap[0] = heap[--size];
+                    siftDown(heap, 0, size, readers);
+                }
+            }
+        } finally {
+            for (IntReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    private static void siftDown(int[] heap, int i, int size, IntReader[] readers) {
+        int run = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(heap[child + 1], heap[child], readers)) {
+                child++;
+            }
+            if (!less(heap[child], run, readers)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = run;
+    }
+
+    private static boolean less(int a, int b, IntReader[] readers) {
+        int x = readers[a].head();
+        int y = readers[b].head();
+        return x < y || (x == y && a < b);
+    }
+
+    private static void deleteAll(List<Path> paths) throws IOException {
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Sequential reader over a file of ints through a fixed direct buffer, exposing the
+     * current value as head() the way the two-way merge looks at left[i].
+     */
+    private static final class IntReader implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private int head;
+        private boolean hasNext;
+
+        IntReader(Path path, ByteOrder byteOrder) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(byteOrder);
+            buffer.flip();
+            hasNext = advance();
+        }
+
+        boolean hasNext() {
+            return hasNext;
+        }
+
+        int head() {
+            return head;
+        }
+
+        boolean advance() throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                buffer.compact();
+                while (buffer.position() < Integer.BYTES) {
+                    if (channel.read(buffer) < 0) {
+                        break;
+                    }
+                }
+                buffer.flip();
+                if (buffer.remaining() < Integer.BYTES) {
+                    hasNext = false;
+                    return false;
+                }
+            }
+            head = buffer.getInt();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static final class IntWriter implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        IntWriter(Path path, ByteOrder byteOrder) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(byteOrder);
+        }
+
+        void write(int value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
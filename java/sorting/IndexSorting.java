@@ -0,0 +1,169 @@
+package sorting;
+
+import java.util.Arrays;
+
+/**
+ * Index Sorting (argsort) computes the permutation that sorts a key column instead of
+ * sorting the column itself. The permutation can then be applied to any number of
+ * other columns, which lets a table stored as parallel primitive arrays
+ * ("struct of arrays") be sorted by one of its columns without creating an object per
+ * row.
+ *
+ * How Index Sorting Works:
+ * 1. Copy the keys and pair them with the identity permutation 0, 1, ..., n - 1.
+ * 2. Sort the copy with the LSD radix sort in RadixSorting, carrying the indices along
+ *    as payload. The radix sort is stable, so equal keys keep their original order.
+ *    Doubles are first mapped to longs whose signed order matches Double.compare.
+ * 3. The payload is now the permutation: perm[i] is the row that belongs at position i.
+ * 4. To co-sort parallel arrays, gather every column through the permutation into one
+ *    shared scratch array and copy it back.
+ *
+ * Time Complexity:
+ * - O(n) per key column for int, long and double keys (a fixed number of radix passes),
+ *   plus O(n) per co-sorted column.
+ *
+ * Space Complexity:
+ * O(n) primitive slots: the key copy, the permutation and the radix sort buffers. No
+ * object is allocated per element, unlike sorting a List of row objects with
+ * Collections.sort.
+ *
+ * - NumPy argsort: https://numpy.org/doc/stable/reference/generated/numpy.argsort.html
+ */
+
+public class IndexSorting {
+
+    public static void main(String[] args) {
+        // Edges as parallel arrays, sorted by weight without Edge objects
+        int[] weight = {10, 6, 5, 15, 4};
+        int[] src = {0, 0, 0, 1, 2};
+        int[] dest = {1, 2, 3, 3, 3};
+
+        System.out.println("argsort(weight): " + Arrays.toString(argsort(weight)));
+
+        coSort(weight, src, dest);
+        for (int i = 0; i < weight.length; i++) {
+            System.out.println("Edge " + src[i] + " - " + dest[i] + " with weight " + weight[i]);
+        }
+
+        double[] scores = {0.5, -1.25, Double.NaN, 3.0, -0.0, 0.0};
+        System.out.println("argsort(scores): " + Arrays.toString(argsort(scores)));
+    }
+
+    public static int[] argsort(int[] keys) {
+        return argsort(keys, keys.length);
+    }
+
+    /**
+     * Sorts only keys[0, length), for columns that are filled to less than their capacity.
+     */
+    public static int[] argsort(int[] keys, int length) {
+        if (length < 0 || length > keys.length) {
+            throw new IllegalArgumentException("length " + length + " is outside [0, " + keys.length + "]");
+        }
+        int[] perm = identity(length);
+        RadixSorting.radixSort(Arrays.copyOf(keys, length), perm);
+        return perm;
+    }
+
+    public static int[] argsort(long[] keys) {
+        int[] perm = identity(keys.length);
+        RadixSorting.radixSort(Arrays.copyOf(keys, keys.length), perm);
+        return perm;
+    }
+
+    /**
+     * Orders keys like Double.compare: -0.0 before 0.0 and NaN after positive infinity.
+     */
+    public static int[] argsort(double[] keys) {
+        long[] sortable = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sortable[i] = sortableBits(keys[i]);
+        }
+        int[] perm = identity(keys.length);
+        RadixSorting.radixSort(sortable, perm);
+        return perm;
+    }
+
+    /**
+     * Sorts keys in place and reorders every column the same way. Equal keys keep the
+     * original relative order of their rows.
+     */
+    public static void coSort(int[] keys, int[]... columns) {
+        checkColumns(keys.length, columns);
+        int[] perm = identity(keys.length);
+        RadixSorting.radixSort(keys, perm);
+        int[] scratch = new int[keys.length];
+        for (int[] column : columns) {
+            permute(perm, column, scratch);
+        }
+    }
+
+    public static void coSort(long[] keys, int[]... columns) {
+        checkColumns(keys.length, columns);
+        int[] perm = identity(keys.length);
+        RadixSorting.radixSort(keys, perm);
+        int[] scratch = new int[keys.length];
+        for (int[] column : columns) {
+            permute(perm, column, scratch);
+        }
+    }
+
+    /**
+     * Reorders column so that column[i] becomes the old column[perm[i]]. scratch must be
+     * at least as long as column and is overwritten, so one buffer serves many columns.
+     */
+    public static void permute(int[] perm, int[] column, int[] scratch) {
+        int n = checkPermutation(perm, column.length, scratch.length);
+        for (int i = 0; i < n; i++) {
+            scratch[i] = column[perm[i]];
+        }
+        System.arraycopy(scratch, 0, column, 0, n);
+    }
+
+    public static void permute(int[] perm, long[] column, long[] scratch) {
+        int n = checkPermutation(perm, column.length, scratch.length);
+        for (int i = 0; i < n; i++) {
+            scratch[i] = column[perm[i]];
+        }
+        System.arraycopy(scratch, 0, column, 0, n);
+    }
+
+    public static void permute(int[] perm, double[] column, double[] scratch) {
+        int n = checkPermutation(perm, column.length, scratch.length);
+        for (int i = 0; i < n; i++) {
+            scratch[i] = column[perm[i]];
+        }
+        System.arraycopy(scratch, 0, column, 0, n);
+    }
+
+    // Flips the magnitude bits of negative doubles so signed long order matches Double.compare
+    static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static int[] identity(int n) {
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = i;
+        }
+        return perm;
+    }
+
+    private static void checkColumns(int length, int[][] columns) {
+        for (int[] column : columns) {
+            if (column.length != length) {
+                throw new IllegalArgumentException("column length " + column.length
+                        + " does not match key length " + length);
+            }
+        }
+    }
+
+    private static int checkPermutation(int[] perm, int columnLength, int scratchLength) {
+        if (perm.length != columnLength || scratchLength < columnLength) {
+            throw new IllegalArgumentException("permutation length " + perm.length + ", column length "
+                    + columnLength + " and scratch length " + scratchLength + " do not fit together");
+        }
+        return columnLength;
+    }
+}
@@ -42,7 +42,7 @@ public class MergeSorting {
 
         UtilHelper.print(sortedArray);
     }
-    private static int[] mergeSort(int[] arr) {
+    public static int[] mergeSort(int[] arr) {
         if (arr.length <= 1) {
             return arr;
         }
@@ -0,0 +1,267 @@
+package sorting;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel Merge Sort is the fork-join version of Merge Sort. Both halves of every
+ * range are sorted concurrently, and the two sorted halves of the largest ranges are
+ * also merged concurrently, so every core takes part from the first split to the
+ * last merge.
+ *
+ * How Parallel Merge Sort Works:
+ * 1. Allocate one auxiliary buffer of the same length as the input and copy the input
+ *    into it. This is the only allocation made by the sort.
+ * 2. Divide: Split the range in half and sort both halves in parallel. The recursion
+ *    alternates the roles of the input and the buffer ("ping-pong"), so each level
+ *    writes its merged output straight into the array the level above reads from and
+ *    no copy back is ever needed.
+ * 3. Conquer: Ranges of at most INSERTION_SORT_THRESHOLD elements are sorted with
+ *    insertion sort, which beats further splitting on such small runs.
+ * 4. Combine (Merge): Large merges are split in two by taking the middle element of the
+ *    longer run and binary searching its position in the shorter run. Both halves of the
+ *    merge are independent and are run in parallel; small merges are sequential.
+ *
+ * The sort is stable: on equal keys the element from the left run is always written
+ * first, both in the sequential merge and in the way the parallel merge splits runs.
+ *
+ * Time Complexity:
+ * - Work: O(n log n)
+ * - Span: O(log^3 n) with the parallel merge, instead of O(n) with a sequential one.
+ *
+ * Space Complexity:
+ * O(n) for the single auxiliary buffer, compared to O(n log n) allocated over the
+ * lifetime of MergeSorting.mergeSort, which copies both halves at every level.
+ *
+ * - Cormen et al., Introduction to Algorithms, 3rd ed., chapter 27.3 "Multithreaded merge sort"
+ */
+
+public class ParallelMergeSorting {
+    static final int INSERTION_SORT_THRESHOLD = 32;
+    static final int MIN_FORK_SIZE = 1 << 13;
+
+    public static void main(String[] args) {
+        int[] arrayToSort = {64, 34, 25, 12, 22, 11, 90};
+        parallelMergeSort(arrayToSort);
+        UtilHelper.print(arrayToSort);
+        System.out.println();
+
+        // Compare against the copying implementation on a larger random input
+        int n = 5_000_000;
+        int[] input = new Random(42).ints(n).toArray();
+        for (int round = 0; round < 3; round++) {
+            int[] a = Arrays.copyOf(input, n);
+            long start = System.nanoTime();
+            int[] expected = MergeSorting.mergeSort(a);
+            long sequential = System.nanoTime() - start;
+
+            int[] b = Arrays.copyOf(input, n);
+            start = System.nanoTime();
+            parallelMergeSort(b);
+            long parallel = System.nanoTime() - start;
+
+            System.out.println("n=" + n + " mergeSort=" + sequential / 1_000_000 + "ms"
+                    + " parallelMergeSort=" + parallel / 1_000_000 + "ms"
+                    + " equal=" + Arrays.equals(expected, b));
+        }
+    }
+
+    public static void parallelMergeSort(int[] arr) {
+        parallelMergeSort(arr, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public static void parallelMergeSort(int[] arr, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        if (parallelism == 1 || arr.length <= INSERTION_SORT_THRESHOLD) {
+            sort(arr, 1, null);
+            return;
+        }
+        if (parallelism == ForkJoinPool.getCommonPoolParallelism()) {
+            sort(arr, parallelism, ForkJoinPool.commonPool());
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            sort(arr, parallelism, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Sorts on an existing pool, so repeated calls do not pay for starting worker threads.
+     */
+    public static void parallelMergeSort(int[] arr, ForkJoinPool pool) {
+        sort(arr, pool.getParallelism(), pool);
+    }
+
+    private static void sort(int[] arr, int parallelism, ForkJoinPool pool) {
+        if (arr.length <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(arr, 0, arr.length);
+            return;
+        }
+
+        int[] aux = Arrays.copyOf(arr, arr.length);
+        // Keep a few tasks per worker so that uneven splits still balance out; without
+        // a pool nothing may fork, since forking outside a pool goes to the common pool
+        int forkSize = pool == null ? arr.length : Math.max(MIN_FORK_SIZE, arr.length / (parallelism * 4));
+
+        SortTask task = new SortTask(arr, aux, 0, arr.length, forkSize);
+        if (pool == null) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Sorts dst[lo, hi) using src[lo, hi) as scratch. On entry both arrays hold the same
+     * elements in that range, which is what lets the halves be sorted into src and then
+     * merged back into dst.
+     */
+    private static final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] dst, src;
+        private final int lo, hi, forkSize;
+
+        SortTask(int[] dst, int[] src, int lo, int hi, int forkSize) {
+            this.dst = dst;
+            this.src = src;
+            this.lo = lo;
+            this.hi = hi;
+            this.forkSize = forkSize;
+        }
+
+        @Override
+        protected void compute() {
+            sort(dst, src, lo, hi, forkSize);
+        }
+
+        private static void sort(int[] dst, int[] src, int lo, int hi, int forkSize) {
+            int length = hi - lo;
+            if (length <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(dst, lo, hi);
+                return;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            if (length <= forkSize) {
+                sort(src, dst, lo, mid, forkSize);
+                sort(src, dst, mid, hi, forkSize);
+                // Already in order, the merge degenerates to a copy
+                if (src[mid - 1] <= src[mid]) {
+                    System.arraycopy(src, lo, dst, lo, length);
+                } else {
+                    merge(src, lo, mid, src, mid, hi, dst, lo);
+                }
+                return;
+            }
+
+            invokeAll(new SortTask(src, dst, lo, mid, forkSize),
+                    new SortTask(src, dst, mid, hi, forkSize));
+            new MergeTask(src, lo, mid, mid, hi, dst, lo, forkSize).compute();
+        }
+    }
+
+    /**
+     * Merges src[lo1, hi1) and src[lo2, hi2) into dst starting at out, splitting the
+     * merge into two independent halves while it is larger than forkSize.
+     */
+    private static final class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src, dst;
+        private final int lo1, hi1, lo2, hi2, out, forkSize;
+
+        MergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out, int forkSize) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.out = out;
+            this.forkSize = forkSize;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= forkSize) {
+                merge(src, lo1, hi1, src, lo2, hi2, dst, out);
+                return;
+            }
+
+            int m1, m2;
+            if (n1 >= n2) {
+                // Right-run elements equal to the pivot must stay behind it
+                m1 = (lo1 + hi1) >>> 1;
+                m2 = lowerBound(src, lo2, hi2, src[m1]);
+            } else {
+                // Left-run elements equal to the pivot must stay in front of it
+                m2 = (lo2 + hi2) >>> 1;
+                m1 = upperBound(src, lo1, hi1, src[m2]);
+            }
+            int split = out + (m1 - lo1) + (m2 - lo2);
+            invokeAll(new MergeTask(src, lo1, m1, lo2, m2, dst, out, forkSize),
+                    new MergeTask(src, m1, hi1, m2, hi2, dst, split, forkSize));
+        }
+    }
+
+    private static void merge(int[] left, int i, int leftEnd, int[] right, int j, int rightEnd, int[] result, int k) {
+        while (i < leftEnd && j < rightEnd) {
+            if (left[i] <= right[j]) {
+                result[k++] = left[i++];
+            } else {
+                result[k++] = right[j++];
+            }
+        }
+
+        System.arraycopy(left, i, result, k, leftEnd - i);
+        System.arraycopy(right, j, result, k + leftEnd - i, rightEnd - j);
+    }
+
+    private static void insertionSort(int[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int key = arr[i];
+            int j = i - 1;
+            while (j >= lo && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
+    // First index in [lo, hi) whose element is >= key
+    private static int lowerBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First index in [lo, hi) whose element is > key
+    private static int upperBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,155 @@
+package sorting;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel QuickSort is the fork-join version of the introsort in QuickSorting. After
+ * a range is partitioned, its two sides share no elements, so they can be sorted by
+ * different threads without any synchronization or extra memory.
+ *
+ * How Parallel QuickSort Works:
+ * 1. If the range holds fewer than the sequential threshold elements, sort it with
+ *    QuickSorting.introSort on the current thread.
+ * 2. Otherwise partition it three ways with QuickSorting.partition, using the same
+ *    ninther pivot as the sequential sort.
+ * 3. Fork a task for the smaller side, keep sorting the larger side on the current
+ *    thread, and join the forked task at the end.
+ * 4. Ranges that exhaust their 2 * log2(n) depth budget are handed to the sequential
+ *    introsort, which falls back to Heap Sort on its own.
+ *
+ * The top-level partition is sequential, so speedup is bounded by the first few
+ * levels; on random input that still leaves O(n log n / p + n) time on p threads.
+ *
+ * Time Complexity:
+ * - Work: O(n log n)
+ * - Span: O(n) [dominated by the first partition]
+ *
+ * Space Complexity:
+ * O(log n) per worker thread for the recursion, no auxiliary arrays.
+ */
+
+public class ParallelQuickSorting {
+    static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    public static void main(String[] args) {
+        int[] arr = {64, 34, 11, 25, 12, 22, 11, 90};
+        parallelQuickSort(arr);
+        UtilHelper.print(arr);
+        System.out.println();
+
+        int n = 10_000_000;
+        int[] input = new Random(42).ints(n).toArray();
+        int[] expected = Arrays.copyOf(input, n);
+        Arrays.sort(expected);
+
+        for (int parallelism = 1; parallelism <= Runtime.getRuntime().availableProcessors(); parallelism *= 2) {
+            int[] a = Arrays.copyOf(input, n);
+            long start = System.nanoTime();
+            parallelQuickSort(a, parallelism, DEFAULT_SEQUENTIAL_THRESHOLD);
+            long elapsed = System.nanoTime() - start;
+            System.out.println("parallelism=" + parallelism + " time=" + elapsed / 1_000_000 + "ms"
+                    + " equal=" + Arrays.equals(expected, a));
+        }
+    }
+
+    public static void parallelQuickSort(int[] arr) {
+        parallelQuickSort(arr, ForkJoinPool.getCommonPoolParallelism(), DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    public static void parallelQuickSort(int[] arr, int parallelism, int sequentialThreshold) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        if (sequentialThreshold < 1) {
+            throw new IllegalArgumentException("sequentialThreshold must be positive: " + sequentialThreshold);
+        }
+        if (arr.length < 2) {
+            return;
+        }
+
+        if (parallelism == 1 || arr.length < sequentialThreshold) {
+            QuickSorting.introSort(arr, 0, arr.length - 1, QuickSorting.depthLimit(arr.length));
+            return;
+        }
+        if (parallelism == ForkJoinPool.getCommonPoolParallelism()) {
+            parallelQuickSort(arr, ForkJoinPool.commonPool(), sequentialThreshold);
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parallelQuickSort(arr, pool, sequentialThreshold);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Sorts on an existing pool, so repeated calls do not pay for starting worker threads.
+     */
+    public static void parallelQuickSort(int[] arr, ForkJoinPool pool, int sequentialThreshold) {
+        if (sequentialThreshold < 1) {
+            throw new IllegalArgumentException("sequentialThreshold must be positive: " + sequentialThreshold);
+        }
+        if (arr.length < 2) {
+            return;
+        }
+        pool.invoke(new SortTask(arr, 0, arr.length - 1, QuickSorting.depthLimit(arr.length), sequentialThreshold));
+    }
+
+    private static final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final int low, high, depth, sequentialThreshold;
+        private SortTask next;
+
+        SortTask(int[] arr, int low, int high, int depth, int sequentialThreshold) {
+            this.arr = arr;
+            this.low = low;
+            this.high = high;
+            this.depth = depth;
+            this.sequentialThreshold = sequentialThreshold;
+        }
+
+        @Override
+        protected void compute() {
+            int low = this.low;
+            int high = this.high;
+            int depth = this.depth;
+            SortTask forked = null;
+
+            while (high - low + 1 >= sequentialThreshold && depth > 0) {
+                depth--;
+                long bounds = QuickSorting.partition(arr, low, high);
+                int lt = QuickSorting.lessThanEnd(bounds);
+                int gt = QuickSorting.greaterThanStart(bounds);
+
+                // fork the smaller side, keep the larger one on this thread
+                SortTask task;
+                if (lt - low < high - gt) {
+                    task = new SortTask(arr, low, lt - 1, depth, sequentialThreshold);
+                    low = gt + 1;
+                } else {
+                    task = new SortTask(arr, gt + 1, high, depth, sequentialThreshold);
+                    high = lt - 1;
+                }
+                task.next = forked;
+                forked = task;
+                task.fork();
+            }
+
+            if (low < high) {
+                QuickSorting.introSort(arr, low, high, depth);
+            }
+
+            // join in reverse fork order so a stolen-back task can run inline
+            while (forked != null) {
+                forked.join();
+                forked = forked.next;
+            }
+        }
+    }
+}
@@ -44,17 +44,27 @@ package sorting;
  * two sub-arrays according to whether they are less than or greater than the pivot.
  * The sub-arrays are then recursively sorted.
  *
+ *
  * How QuickSort Works:
- * 1. Choose a pivot element from the array.
- * 2. Partition the array around the pivot, with elements less than the pivot on
- *    one side and elements greater than the pivot on the other.
- * 3. Recursively apply QuickSort to the sub-arrays created in the partition step.
+ * 1. Choose a pivot element from the array. The pivot is the median of three
+ *    elements (first, middle, last), or for larger ranges Tukey's ninther: the
+ *    median of three medians of three. This keeps sorted, reverse-sorted and
+ *    organ-pipe inputs from producing a bad split.
+ * 2. Partition the array three ways around the pivot (Dijkstra's Dutch national flag),
+ *    with elements less than the pivot on one side, elements greater than the pivot
+ *    on the other and all copies of the pivot in the middle. The middle block is
+ *    already in place, so inputs with many duplicate keys finish in linear time.
+ * 3. Recursively apply QuickSort to the smaller sub-array and loop on the larger one.
+ * 4. Ranges of at most INSERTION_SORT_THRESHOLD elements are finished with insertion sort.
+ *
+ * This variant is known as Introsort: every range carries a depth budget of
+ * 2 * log2(n). If a range runs out of budget, pivot selection has been defeated and
+ * the range is sorted with Heap Sort instead, which bounds the worst case.
  *
  * Time Complexity:
- * - Best Case: O(n log n)
+ * - Best Case: O(n) [all keys equal, one three-way partition]
  * - Average Case: O(n log n)
- * - Worst Case: O(n^2) [with a poor choice of pivot, but randomized pivot selection
- *   can mitigate this]
+ * - Worst Case: O(n log n) [guaranteed by the Heap Sort fallback]
  *
  * QuickSort is generally faster in practice than other O(n log n) algorithms such as
  * Merge Sort and Heap Sort. However, its worst-case time complexity is a consideration
@@ -62,31 +72,41 @@ package sorting;
  * performance in practice.
  *
  * Space Complexity:
- * The space complexity of QuickSort is O(log n) for the recursive call stack.
+ * The space complexity of QuickSort is O(log n). The recursive version only recurses
+ * into the smaller side, and the stack version always pushes the larger side first so
+ * that the smaller side is popped next, so neither ever holds more than log2(n) ranges.
  *
  * - GeeksforGeeks: https://www.geeksforgeeks.org/quick-sort/
+ * - Musser, "Introspective Sorting and Selection Algorithms" (1997)
+ * - Bentley and McIlroy, "Engineering a Sort Function" (1993)
  */
 
 public class QuickSorting {
+    static final int INSERTION_SORT_THRESHOLD = 16;
+    static final int NINTHER_THRESHOLD = 40;
+
     public static void main(String[] args) {
         int[] arr = {64, 34, 11, 25, 12, 22, 11, 90};
         arr = quick_sort_v2_stack(arr, 0, arr.length - 1);
         UtilHelper.print(arr);
     }
 
-    private static int[] quick_sort_v1_recursion(int[] arr, int low, int high) {
+    public static int[] quick_sort_v1_recursion(int[] arr, int low, int high) {
         if (low < high) {
-            int partitionIndex = partition(arr, low, high);
-
-            quick_sort_v1_recursion(arr, low, partitionIndex - 1);
-            quick_sort_v1_recursion(arr, partitionIndex + 1, high);
+            introSort(arr, low, high, depthLimit(high - low + 1));
         }
         return arr;
     }
-    private static int[] quick_sort_v2_stack(int[] arr, int l, int h)
+
+    public static int[] quick_sort_v2_stack(int[] arr, int l, int h)
     {
-        // create auxiliary stack
-        int[] stack = new int[h - l + 1];
+        if (l >= h) {
+            return arr;
+        }
+
+        // create auxiliary stack of (low, high, depth) triples; only the smaller
+        // side is popped right after a push, so log2(n) + 1 triples always fit
+        int[] stack = new int[3 * 33];
 
         // initialize top of stack
         int top = -1;
@@ -94,46 +114,173 @@ public class QuickSorting {
         // push initial values in the stack
         stack[++top] = l;
         stack[++top] = h;
+        stack[++top] = depthLimit(h - l + 1);
 
         // keep popping elements until stack is not empty
         while (top >= 0) {
-            // pop h and l
+            // pop depth, h and l
+            int depth = stack[top--];
             h = stack[top--];
             l = stack[top--];
 
-            // set pivot element at it's proper position
-            int p = partition(arr, l, h);
-
-            // If there are elements on left side of pivot,
-            // then push left side to stack
-            if (p - 1 > l) {
-                stack[++top] = l;
-                stack[++top] = p - 1;
+            if (h - l + 1 <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(arr, l, h);
+                continue;
+            }
+            if (depth == 0) {
+                heapSort(arr, l, h);
+                continue;
             }
 
-            // If there are elements on right side of pivot,
-            // then push right side to stack
-            if (p + 1 < h) {
-                stack[++top] = p + 1;
-                stack[++top] = h;
+            // set all copies of the pivot at their proper position
+            long bounds = partition(arr, l, h);
+            int lt = lessThanEnd(bounds);
+            int gt = greaterThanStart(bounds);
+
+            // push the larger side first so that the smaller one is processed next
+            if (lt - l > h - gt) {
+                top = push(stack, top, l, lt - 1, depth - 1);
+                top = push(stack, top, gt + 1, h, depth - 1);
+            } else {
+                top = push(stack, top, gt + 1, h, depth - 1);
+                top = push(stack, top, l, lt - 1, depth - 1);
             }
         }
         return arr;
     }
 
-    private static int partition(int[] arr, int low, int high) {
-        int pivot = arr[high];
-        int i = low - 1;
+    private static int push(int[] stack, int top, int low, int high, int depth) {
+        if (low < high) {
+            stack[++top] = low;
+            stack[++top] = high;
+            stack[++top] = depth;
+        }
+        return top;
+    }
+
+    static void introSort(int[] arr, int low, int high, int depth) {
+        while (high - low + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depth == 0) {
+                heapSort(arr, low, high);
+                return;
+            }
+            depth--;
+
+            long bounds = partition(arr, low, high);
+            int lt = lessThanEnd(bounds);
+            int gt = greaterThanStart(bounds);
+
+            // recurse into the smaller side, loop on the larger one
+            if (lt - low < high - gt) {
+                introSort(arr, low, lt - 1, depth);
+                low = gt + 1;
+            } else {
+                introSort(arr, gt + 1, high, depth);
+                high = lt - 1;
+            }
+        }
+        insertionSort(arr, low, high);
+    }
+
+    static int depthLimit(int length) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    /**
+     * Three-way partitions arr[low..high] around a median-of-three or ninther pivot.
+     * Afterwards arr[low..lt-1] < pivot, arr[lt..gt] == pivot and arr[gt+1..high] > pivot.
+     * Both bounds are packed into one long so the hot loop does not allocate; unpack
+     * them with lessThanEnd and greaterThanStart.
+     */
+    static long partition(int[] arr, int low, int high) {
+        int pivot = choosePivot(arr, low, high);
+        int lt = low;
+        int i = low;
+        int gt = high;
 
-        for (int j = low; j < high; j++) {
-            if (arr[j] < pivot) {
+        while (i <= gt) {
+            int value = arr[i];
+            if (value < pivot) {
+                swap(arr, lt++, i++);
+            } else if (value > pivot) {
+                swap(arr, i, gt--);
+            } else {
                 i++;
-                swap(arr, i, j);
             }
         }
 
-        swap(arr, i + 1, high);
-        return i + 1;
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+
+    static int lessThanEnd(long bounds) {
+        return (int) (bounds >>> 32);
+    }
+
+    static int greaterThanStart(long bounds) {
+        return (int) bounds;
+    }
+
+    static int choosePivot(int[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            return arr[medianOfThree(arr, low, mid, high)];
+        }
+
+        int eighth = (high - low + 1) >>> 3;
+        int first = medianOfThree(arr, low, low + eighth, low + 2 * eighth);
+        int middle = medianOfThree(arr, mid - eighth, mid, mid + eighth);
+        int last = medianOfThree(arr, high - 2 * eighth, high - eighth, high);
+        return arr[medianOfThree(arr, first, middle, last)];
+    }
+
+    private static int medianOfThree(int[] arr, int i, int j, int k) {
+        int a = arr[i], b = arr[j], c = arr[k];
+        if (a < b) {
+            return b < c ? j : (a < c ? k : i);
+        }
+        return a < c ? i : (b < c ? k : j);
+    }
+
+    static void insertionSort(int[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int key = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
+    static void heapSort(int[] arr, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(arr, low, low + end);
+            siftDown(arr, low, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] arr, int offset, int i, int n) {
+        int value = arr[offset + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && arr[offset + child + 1] > arr[offset + child]) {
+                child++;
+            }
+            if (arr[offset + child] <= value) {
+                break;
+            }
+            arr[offset + i] = arr[offset + child];
+            i = child;
+        }
+        arr[offset + i] = value;
     }
 
     private static void swap(int[] arr, int i, int j) {
@@ -0,0 +1,371 @@
+package sorting;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Radix Sort is a non-comparison sorting algorithm for fixed-width integer keys. Instead
+ * of comparing keys with each other it distributes them into buckets one digit at a time,
+ * so its running time depends on the key width rather than on log n.
+ *
+ * How LSD (least significant digit) Radix Sort Works:
+ * 1. Split every key into 8-bit digits: 4 digits for an int, 8 for a long. The sign bit
+ *    is flipped first so that negative keys order before positive ones as unsigned bytes.
+ * 2. Count the occurrences of every digit value at every position in a single pass.
+ * 3. For each digit position, starting from the least significant one, turn its counts
+ *    into bucket offsets and scatter the keys into an auxiliary array in that order.
+ *    Positions where every key has the same digit are skipped, so small or clustered
+ *    keys need fewer than 4 (or 8) passes.
+ * 4. Each scatter is stable, so after the last digit the keys are fully sorted.
+ *
+ * How MSD (American flag) Radix Sort Works:
+ * 1. Count the occurrences of every value of the most significant digit.
+ * 2. Permute the keys in place into their buckets by cycling each misplaced key to the
+ *    next free slot of its bucket, American flag style.
+ * 3. Recurse into every bucket on the next digit, finishing small buckets with insertion
+ *    sort. No auxiliary array is needed, but unlike LSD the result is not stable.
+ *
+ * The LSD variant can carry a payload: an int[] that is reordered together with the keys,
+ * typically the original indices, so it doubles as a stable argsort.
+ *
+ * Time Complexity:
+ * - LSD: O(w * (n + 256)), where w is the number of non-trivial digit positions.
+ * - MSD: O(w * n) in the worst case, usually much less because buckets become small.
+ *
+ * Space Complexity:
+ * - LSD: O(n) for the auxiliary array (and one more for the payload).
+ * - MSD: O(1) besides a fixed 256-entry count table per digit position.
+ *
+ * - Wikipedia: https://en.wikipedia.org/wiki/Radix_sort
+ * - McIlroy, Bostic and McIlroy, "Engineering Radix Sort" (1993)
+ */
+
+public class RadixSorting {
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int MASK = RADIX - 1;
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    public static void main(String[] args) {
+        int[] arrayToSort = {64, -34, 25, 12, -22, 11, 90};
+        radixSort(arrayToSort);
+        UtilHelper.print(arrayToSort);
+        System.out.println();
+
+        // Throughput comparison against the comparison sorts in this package
+        int n = 5_000_000;
+        int[] input = new Random(42).ints(n).toArray();
+        int[] expected = Arrays.copyOf(input, n);
+        Arrays.sort(expected);
+
+        for (int round = 0; round < 3; round++) {
+            int[] a = Arrays.copyOf(input, n);
+            long start = System.nanoTime();
+            a = MergeSorting.mergeSort(a);
+            report("mergeSort", n, System.nanoTime() - start, Arrays.equals(expected, a));
+
+            a = Arrays.copyOf(input, n);
+            start = System.nanoTime();
+            ParallelMergeSorting.parallelMergeSort(a);
+            report("parallelMergeSort", n, System.nanoTime() - start, Arrays.equals(expected, a));
+
+            a = Arrays.copyOf(input, n);
+            start = System.nanoTime();
+            QuickSorting.quick_sort_v1_recursion(a, 0, n - 1);
+            report("quickSort", n, System.nanoTime() - start, Arrays.equals(expected, a));
+
+            a = Arrays.copyOf(input, n);
+            start = System.nanoTime();
+            radixSort(a);
+            report("radixSort", n, System.nanoTime() - start, Arrays.equals(expected, a));
+
+            a = Arrays.copyOf(input, n);
+            start = System.nanoTime();
+            americanFlagSort(a);
+            report("americanFlagSort", n, System.nanoTime() - start, Arrays.equals(expected, a));
+        }
+    }
+
+    private static void report(String name, int n, long nanos, boolean sorted) {
+        System.out.printf("%-18s %8.1f Mkeys/s sorted=%b%n", name, n * 1000.0 / nanos, sorted);
+    }
+
+    public static void radixSort(int[] arr) {
+        lsd(arr, null);
+    }
+
+    public static void radixSort(long[] arr) {
+        lsd(arr, null);
+    }
+
+    /**
+     * Sorts keys and applies the same permutation to payload. Equal keys keep the
+     * relative order of their payloads.
+     */
+    public static void radixSort(int[] keys, int[] payload) {
+        checkPayload(keys.length, payload);
+        lsd(keys, payload);
+    }
+
+    public static void radixSort(long[] keys, int[] payload) {
+        checkPayload(keys.length, payload);
+        lsd(keys, payload);
+    }
+
+    private static void checkPayload(int length, int[] payload) {
+        if (payload.length != length) {
+            throw new IllegalArgumentException("payload length " + payload.length
+                    + " does not match key length " + length);
+        }
+    }
+
+    private static void lsd(int[] keys, int[] payload) {
+        int n = keys.length;
+        if (n < 2) {
+            return;
+        }
+
+        int passes = Integer.SIZE / RADIX_BITS;
+        int[] counts = new int[passes * RADIX];
+        for (int key : keys) {
+            int u = key ^ Integer.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass * RADIX + ((u >>> (pass * RADIX_BITS)) & MASK)]++;
+            }
+        }
+
+        int[] src = keys, dst = null;
+        int[] srcPayload = payload, dstPayload = null;
+        for (int pass = 0; pass < passes; pass++) {
+            int offset = pass * RADIX;
+            int shift = pass * RADIX_BITS;
+            // every key has the same digit here, the pass would not move anything
+            if (counts[offset + (((src[0] ^ Integer.MIN_VALUE) >>> shift) & MASK)] == n) {
+                continue;
+            }
+            if (dst == null) {
+                dst = new int[n];
+                dstPayload = payload == null ? null : new int[n];
+            }
+
+            toOffsets(counts, offset);
+            for (int i = 0; i < n; i++) {
+                int key = src[i];
+                int position = counts[offset + (((key ^ Integer.MIN_VALUE) >>> shift) & MASK)]++;
+                dst[position] = key;
+                if (payload != null) {
+                    dstPayload[position] = srcPayload[i];
+                }
+            }
+
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+            swap = srcPayload;
+            srcPayload = dstPayload;
+            dstPayload = swap;
+        }
+
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, n);
+            if (payload != null) {
+                System.arraycopy(srcPayload, 0, payload, 0, n);
+            }
+        }
+    }
+
+    private static void lsd(long[] keys, int[] payload) {
+        int n = keys.length;
+        if (n < 2) {
+            return;
+        }
+
+        int passes = Long.SIZE / RADIX_BITS;
+        int[] counts = new int[passes * RADIX];
+        for (long key : keys) {
+            long u = key ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass * RADIX + (int) ((u >>> (pass * RADIX_BITS)) & MASK)]++;
+            }
+        }
+
+        long[] src = keys, dst = null;
+        int[] srcPayload = payload, dstPayload = null;
+        for (int pass = 0; pass < passes; pass++) {
+            int offset = pass * RADIX;
+            int shift = pass * RADIX_BITS;
+            // every key has the same digit here, the pass would not move anything
+            if (counts[offset + (int) (((src[0] ^ Long.MIN_VALUE) >>> shift) & MASK)] == n) {
+                continue;
+            }
+            if (dst == null) {
+                dst = new long[n];
+                dstPayload = payload == null ? null : new int[n];
+            }
+
+            toOffsets(counts, offset);
+            for (int i = 0; i < n; i++) {
+                long key = src[i];
+                int position = counts[offset + (int) (((key ^ Long.MIN_VALUE) >>> shift) & MASK)]++;
+                dst[position] = key;
+                if (payload != null) {
+                    dstPayload[position] = srcPayload[i];
+                }
+            }
+
+            long[] swap = src;
+            src = dst;
+            dst = swap;
+            int[] swapPayload = srcPayload;
+            srcPayload = dstPayload;
+            dstPayload = swapPayload;
+        }
+
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, n);
+            if (payload != null) {
+                System.arraycopy(srcPayload, 0, payload, 0, n);
+            }
+        }
+    }
+
+    // Turns the digit counts of one pass into exclusive prefix sums, in place
+    private static void toOffsets(int[] counts, int offset) {
+        int sum = 0;
+        for (int digit = 0; digit < RADIX; digit++) {
+            int count = counts[offset + digit];
+            counts[offset + digit] = sum;
+            sum += count;
+        }
+    }
+
+    public static void americanFlagSort(int[] arr) {
+        americanFlagSort(arr, 0, arr.length);
+    }
+
+    // Sorts arr[from, to) only, so callers can reuse one oversized buffer
+    public static void americanFlagSort(int[] arr, int from, int to) {
+        int passes = Integer.SIZE / RADIX_BITS;
+        americanFlagSort(arr, from, to, passes - 1, new int[passes][RADIX + 1], new int[RADIX]);
+    }
+
+    public static void americanFlagSort(long[] arr) {
+        int passes = Long.SIZE / RADIX_BITS;
+        americanFlagSort(arr, 0, arr.length, passes - 1, new int[passes][RADIX + 1], new int[RADIX]);
+    }
+
+    /**
+     * Sorts arr[lo, hi) on digit pass and below. bounds[pass] holds the bucket boundaries
+     * of this level, which must survive the recursion, while next is only used during the
+     * permutation and can be shared by all levels.
+     */
+    private static void americanFlagSort(int[] arr, int lo, int hi, int pass, int[][] bounds, int[] next) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(arr, lo, hi);
+            return;
+        }
+
+        int shift = pass * RADIX_BITS;
+        int[] bound = bounds[pass];
+        Arrays.fill(bound, 0);
+        for (int i = lo; i < hi; i++) {
+            bound[(((arr[i] ^ Integer.MIN_VALUE) >>> shift) & MASK) + 1]++;
+        }
+        bound[0] = lo;
+        for (int digit = 0; digit < RADIX; digit++) {
+            bound[digit + 1] += bound[digit];
+            next[digit] = bound[digit];
+        }
+
+        for (int digit = 0; digit < RADIX; digit++) {
+            int end = bound[digit + 1];
+            while (next[digit] < end) {
+                int value = arr[next[digit]];
+                int d = ((value ^ Integer.MIN_VALUE) >>> shift) & MASK;
+                // cycle the value to its bucket until one belonging here comes back
+                while (d != digit) {
+                    int displaced = arr[next[d]];
+                    arr[next[d]++] = value;
+                    value = displaced;
+                    d = ((value ^ Integer.MIN_VALUE) >>> shift) & MASK;
+                }
+                arr[next[digit]++] = value;
+            }
+        }
+
+        if (pass > 0) {
+            for (int digit = 0; digit < RADIX; digit++) {
+                if (bound[digit + 1] - bound[digit] > 1) {
+                    americanFlagSort(arr, bound[digit], bound[digit + 1], pass - 1, bounds, next);
+                }
+            }
+        }
+    }
+
+    private static void americanFlagSort(long[] arr, int lo, int hi, int pass, int[][] bounds, int[] next) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(arr, lo, hi);
+            return;
+        }
+
+        int shift = pass * RADIX_BITS;
+        int[] bound = bounds[pass];
+        Arrays.fill(bound, 0);
+        for (int i = lo; i < hi; i++) {
+            bound[(int) (((arr[i] ^ Long.MIN_VALUE) >>> shift) & MASK) + 1]++;
+        }
+        bound[0] = lo;
+        for (int digit = 0; digit < RADIX; digit++) {
+            bound[digit + 1] += bound[digit];
+            next[digit] = bound[digit];
+        }
+
+        for (int digit = 0; digit < RADIX; digit++) {
+            int end = bound[digit + 1];
+            while (next[digit] < end) {
+                long value = arr[next[digit]];
+                int d = (int) (((value ^ Long.MIN_VALUE) >>> shift) & MASK);
+                // cycle the value to its bucket until one belonging here comes back
+                while (d != digit) {
+                    long displaced = arr[next[d]];
+                    arr[next[d]++] = value;
+                    value = displaced;
+                    d = (int) (((value ^ Long.MIN_VALUE) >>> shift) & MASK);
+                }
+                arr[next[digit]++] = value;
+            }
+        }
+
+        if (pass > 0) {
+            for (int digit = 0; digit < RADIX; digit++) {
+                if (bound[digit + 1] - bound[digit] > 1) {
+                    americanFlagSort(arr, bound[digit], bound[digit + 1], pass - 1, bounds, next);
+                }
+            }
+        }
+    }
+
+    private static void insertionSort(int[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int key = arr[i];
+            int j = i - 1;
+            while (j >= lo && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
+    private static void insertionSort(long[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            long key = arr[i];
+            int j = i - 1;
+            while (j >= lo && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+}